@@ -0,0 +1,146 @@
+package com.wynnignore;
+
+import com.wynnignore.gametest.mixin.TextDisplayEntityAccessor;
+import net.fabricmc.fabric.api.client.gametest.v1.FabricClientGameTest;
+import net.fabricmc.fabric.api.client.gametest.v1.context.ClientGameTestContext;
+import net.fabricmc.fabric.api.client.gametest.v1.context.TestSingleplayerContext;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.AbstractClientPlayerEntity;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.decoration.DisplayEntity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Times the /warignore entity sweep in a real client world with 50, 500 and 5000 text displays around
+ * the player, spread over twice the war ignore distance so the distance check has work to do.
+ * One display in ten shows a disguised player's nametag, always within the distance, and another one
+ * in ten a plain name. Each step checks that the first scan, which also fills {@link DisguisedNameCache},
+ * and the cached scans after it find exactly the disguised players and no other player, then logs the
+ * first scan and the median and maximum of the others.
+ * Run with {@code ./gradlew runClientGameTest}.
+ */
+public class WarScanGameTest implements FabricClientGameTest {
+    private static final int[] ENTITY_COUNTS = {50, 500, 5000};
+    private static final int RUNS = 200;
+    private static final int TAG_EVERY = 10;
+
+    @Override
+    public void runTest(ClientGameTestContext context) {
+        try (TestSingleplayerContext singleplayer = context.worldBuilder().create()) {
+            singleplayer.getClientWorld().waitForChunksRender();
+
+            int spawned = 0;
+            for (int count : ENTITY_COUNTS) {
+                int from = spawned;
+                singleplayer.getServer().runOnServer(server -> spawnDisplays(server.getOverworld(), from, count));
+                spawned = count;
+                // Render data, which the scan reads the text from, is set up on the client after the spawn
+                context.waitFor(client -> countDisplays(client) >= count);
+                context.runOnClient(client -> measure(count));
+            }
+        }
+    }
+
+    /**
+     * Spawns displays from index from up to count at positions and with texts that depend only on their index.
+     */
+    private static void spawnDisplays(ServerWorld world, int from, int count) {
+        ServerPlayerEntity player = world.getPlayers().get(0);
+        double distance = ModConfig.getInstance().getWarIgnoreDistance();
+        for (int i = from; i < count; i++) {
+            Random random = new Random(i);
+            boolean disguised = i % TAG_EVERY == 0;
+            // Disguised players stand well within the distance, so every one of them must be found
+            double spread = disguised ? distance / 2 : distance * 2;
+            DisplayEntity.TextDisplayEntity display = new DisplayEntity.TextDisplayEntity(EntityType.TEXT_DISPLAY, world);
+            display.setPosition(
+                player.getX() + (random.nextDouble() * 2 - 1) * spread,
+                player.getY() + 1,
+                player.getZ() + (random.nextDouble() * 2 - 1) * spread);
+            if (disguised) {
+                ((TextDisplayEntityAccessor) display).wynnignore$setText(Text.literal(playerName(i) + " " + disguisedTag()));
+            } else if (i % TAG_EVERY == TAG_EVERY / 2) {
+                ((TextDisplayEntityAccessor) display).wynnignore$setText(Text.literal(playerName(i)));
+            }
+            world.spawnEntity(display);
+        }
+    }
+
+    private static String playerName(int index) {
+        return "Player_" + index;
+    }
+
+    private static String disguisedTag() {
+        StringBuilder tag = new StringBuilder();
+        for (char selector : CommandHandler.DISGUISED_GLYPHS) {
+            tag.append(selector).append(WynnFontDecoder.GLYPH_MARKER_HIGH).append(WynnFontDecoder.GLYPH_MARKER_LOW);
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Counts the text displays whose render data the client has set up.
+     */
+    private static int countDisplays(MinecraftClient client) {
+        int count = 0;
+        for (Entity entity : client.world.getEntities()) {
+            if (entity instanceof DisplayEntity.TextDisplayEntity display && display.getData() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void measure(int count) {
+        double distance = ModConfig.getInstance().getWarIgnoreDistance();
+        List<AbstractClientPlayerEntity> players = new ArrayList<>();
+        List<String> disguisedNames = new ArrayList<>();
+
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < count; i += TAG_EVERY) {
+            expected.add(playerName(i));
+        }
+
+        DisguisedNameCache.clear();
+        long start = System.nanoTime();
+        int candidates = CommandHandler.scanNearby(distance, players, disguisedNames);
+        long coldNanos = System.nanoTime() - start;
+        checkFound("first scan", count, expected, players, disguisedNames);
+
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            players.clear();
+            disguisedNames.clear();
+            start = System.nanoTime();
+            CommandHandler.scanNearby(distance, players, disguisedNames);
+            nanos[i] = System.nanoTime() - start;
+        }
+        checkFound("cached scan", count, expected, players, disguisedNames);
+        Arrays.sort(nanos);
+
+        WynnIgnoreMod.LOGGER.info("War scan with {} displays: {} candidates, first {} us, median {} us, max {} us",
+            count, candidates, coldNanos / 1000, nanos[RUNS / 2] / 1000, nanos[RUNS - 1] / 1000);
+    }
+
+    private static void checkFound(String scan, int count, Set<String> expected,
+                                   List<AbstractClientPlayerEntity> players, List<String> disguisedNames) {
+        // The local player is the only player in the world and is never a candidate
+        if (!players.isEmpty()) {
+            throw new AssertionError(scan + " with " + count + " displays found players " + players);
+        }
+        if (disguisedNames.size() != expected.size() || !expected.equals(new HashSet<>(disguisedNames))) {
+            throw new AssertionError(scan + " with " + count + " displays found disguised players " + disguisedNames
+                + ", expected " + expected);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.wynnignore.gametest.mixin;
+
+import net.minecraft.entity.decoration.DisplayEntity;
+import net.minecraft.text.Text;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * Sets a text display's text from a test; the game only sets it from NBT and tracked data.
+ */
+@Mixin(DisplayEntity.TextDisplayEntity.class)
+public interface TextDisplayEntityAccessor {
+    @Invoker("setText")
+    void wynnignore$setText(Text text);
+}
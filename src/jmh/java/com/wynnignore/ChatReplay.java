@@ -0,0 +1,187 @@
+package com.wynnignore;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Pushes chat recordings made by {@link ChatRecorder} through {@link ConfirmationMatcher} as fast as
+ * possible. Reports throughput, allocation per message and every message that was read as a confirmation,
+ * plus messages where the matcher and the old strip-and-contains check disagree.
+ * Run with {@code ./gradlew replayChat --args="<recording or directory>... [--passes N] [--show N]"}.
+ */
+public final class ChatReplay {
+    private static final int WARMUP_PASSES = 5;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+        .withZone(ZoneId.systemDefault());
+
+    private ChatReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int passes = 20;
+        int show = 50;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--passes" -> passes = Integer.parseInt(args[++i]);
+                case "--show" -> show = Integer.parseInt(args[++i]);
+                default -> addRecordings(Path.of(args[i]), files);
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: ChatReplay <recording or directory>... [--passes N] [--show N]");
+            System.exit(1);
+        }
+
+        List<Long> times = new ArrayList<>();
+        List<String> messageList = new ArrayList<>();
+        for (Path file : files) {
+            ChatRecorder.read(file, (time, message) -> {
+                times.add(time);
+                messageList.add(message);
+            });
+        }
+        String[] messages = messageList.toArray(new String[0]);
+        long chars = 0;
+        for (String message : messages) {
+            chars += message.length();
+        }
+        System.out.printf("Read %d messages (%.1f M chars) from %d recording(s)%n", messages.length, chars / 1e6, files.size());
+        if (messages.length == 0) {
+            return;
+        }
+
+        measure(messages, chars, passes);
+        reportConfirmations(messages, times, show);
+    }
+
+    private static void addRecordings(Path path, List<Path> files) throws IOException {
+        if (!Files.isDirectory(path)) {
+            files.add(path);
+            return;
+        }
+        try (Stream<Path> entries = Files.list(path)) {
+            entries.filter(p -> p.getFileName().toString().endsWith(".rec.gz")).sorted().forEach(files::add);
+        }
+    }
+
+    private static void measure(String[] messages, long chars, int passes) {
+        int sink = 0;
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            sink += scan(messages);
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            sink += scan(messages);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        long scanned = (long) messages.length * passes;
+        double seconds = elapsed / 1e9;
+        System.out.printf("Throughput: %.2f M msgs/s (%.0f ns/msg, %.0f M chars/s) over %d passes%n",
+            scanned / seconds / 1e6, (double) elapsed / scanned, chars * passes / seconds / 1e6, passes);
+        if (allocatedBefore >= 0) {
+            System.out.printf("Allocation: %.2f bytes/msg (%.1f MB/s)%n",
+                (double) allocated / scanned, allocated / seconds / 1e6);
+        } else {
+            System.out.println("Allocation: not supported by this JVM");
+        }
+        // Keeps the scans from being optimized away
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * What onChatMessage does for every message while a command is in flight.
+     */
+    private static int scan(String[] messages) {
+        int found = 0;
+        for (String message : messages) {
+            found += ConfirmationMatcher.matchPhrases(message);
+        }
+        return found;
+    }
+
+    private static void reportConfirmations(String[] messages, List<Long> times, int show) {
+        int added = 0;
+        int removed = 0;
+        int notIgnored = 0;
+        List<String> confirmations = new ArrayList<>();
+        List<String> disagreements = new ArrayList<>();
+        for (int i = 0; i < messages.length; i++) {
+            int found = ConfirmationMatcher.matchPhrases(messages[i]);
+            if ((found & ConfirmationMatcher.ADDED) != 0) added++;
+            if ((found & ConfirmationMatcher.REMOVED) != 0) removed++;
+            if ((found & ConfirmationMatcher.NOT_IGNORED) != 0) notIgnored++;
+            if (found != 0) {
+                confirmations.add(line(times.get(i), describe(found), messages[i]));
+            }
+            int legacy = legacyPhrases(messages[i]);
+            if (legacy != found) {
+                disagreements.add(line(times.get(i), "matcher " + describe(found) + ", legacy " + describe(legacy), messages[i]));
+            }
+        }
+
+        System.out.printf("Confirmations: %d (added %d, removed %d, not ignored %d)%n", confirmations.size(), added, removed, notIgnored);
+        print(confirmations, show);
+        System.out.printf("Disagreements with the legacy check: %d%n", disagreements.size());
+        print(disagreements, show);
+    }
+
+    private static int legacyPhrases(String message) {
+        String lower = LegacyText.stripSpecialCharacters(message).toLowerCase();
+        int found = 0;
+        if (lower.contains("has been added to your ignore list")) found |= ConfirmationMatcher.ADDED;
+        if (lower.contains("has been removed from your ignore list")) found |= ConfirmationMatcher.REMOVED;
+        if (lower.contains("is not being ignored")) found |= ConfirmationMatcher.NOT_IGNORED;
+        return found;
+    }
+
+    private static String describe(int found) {
+        if (found == 0) {
+            return "none";
+        }
+        List<String> parts = new ArrayList<>(3);
+        if ((found & ConfirmationMatcher.ADDED) != 0) parts.add("added");
+        if ((found & ConfirmationMatcher.REMOVED) != 0) parts.add("removed");
+        if ((found & ConfirmationMatcher.NOT_IGNORED) != 0) parts.add("not ignored");
+        return String.join("+", parts);
+    }
+
+    private static String line(long time, String label, String message) {
+        return "  " + TIME.format(Instant.ofEpochMilli(time)) + "  [" + label + "]  " + message.replace("\n", "\\n");
+    }
+
+    private static void print(List<String> lines, int show) {
+        for (int i = 0; i < Math.min(show, lines.size()); i++) {
+            System.out.println(lines.get(i));
+        }
+        if (lines.size() > show) {
+            System.out.println("  ... " + (lines.size() - show) + " more");
+        }
+    }
+
+    /**
+     * Bytes allocated so far by this thread, or -1 if the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemorySupported()) {
+            return hotspot.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
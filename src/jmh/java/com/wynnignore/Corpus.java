@@ -0,0 +1,112 @@
+package com.wynnignore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates chat lines, nametags and player names shaped like what Wynncraft sends: formatting codes,
+ * custom-font glyphs for ranks and tags, and the occasional ignore confirmation.
+ * Generation is seeded, so every run benchmarks the same input.
+ */
+final class Corpus {
+    private static final String NAME_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
+    private static final String[] WORDS = {
+        "anyone", "selling", "a", "mythic", "for", "le", "lf", "party", "nest", "of", "grootslangs",
+        "the", "canyon", "colossus", "gg", "wp", "ty", "raid", "guild", "war", "in", "5", "min", "pls", "inv"
+    };
+    // Rank badges are single glyphs without a known letter
+    private static final char[] RANK_SELECTORS = {'\uE017', '\uE018', '\uE019', '\uE01A', '\uE01B'};
+
+    private Corpus() {
+    }
+
+    static String playerName(Random random) {
+        int length = 3 + random.nextInt(14);
+        StringBuilder name = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            name.append(NAME_CHARS.charAt(random.nextInt(NAME_CHARS.length())));
+        }
+        return name.toString();
+    }
+
+    static List<String> playerNames(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // The index keeps names unique however many are drawn
+            names.add(playerName(random) + "_" + Integer.toString(i, 36));
+        }
+        return names;
+    }
+
+    /**
+     * Chat lines; roughly one in confirmationEvery is an ignore confirmation for a random player.
+     */
+    static String[] chat(int count, long seed, int confirmationEvery) {
+        Random random = new Random(seed);
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (confirmationEvery > 0 && random.nextInt(confirmationEvery) == 0) {
+                lines[i] = confirmation(random.nextBoolean(), playerName(random));
+                continue;
+            }
+            StringBuilder line = new StringBuilder(96);
+            switch (random.nextInt(3)) {
+                case 0 -> line.append("\u00a77[\u00a7fWC").append(1 + random.nextInt(60)).append("\u00a77] ");
+                case 1 -> line.append("\u00a7b[").append(playerName(random), 0, 3).append("] ");
+                default -> line.append(glyph(RANK_SELECTORS[random.nextInt(RANK_SELECTORS.length)])).append(' ');
+            }
+            line.append("\u00a7f").append(playerName(random)).append("\u00a77: \u00a7f");
+            int words = 2 + random.nextInt(12);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) line.append(' ');
+                line.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            lines[i] = line.toString();
+        }
+        return lines;
+    }
+
+    static String confirmation(boolean added, String player) {
+        return "\u00a7e" + player + (added ? " has been added to your ignore list." : " has been removed from your ignore list.");
+    }
+
+    /**
+     * Text display nametags; roughly one in disguisedEvery carries the DISGUISED tag.
+     */
+    static String[] nametags(int count, long seed, int disguisedEvery) {
+        Random random = new Random(seed);
+        String tag = glyphs("DISGUISED");
+        String[] tags = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder(96);
+            if (random.nextBoolean()) {
+                text.append(glyph(RANK_SELECTORS[random.nextInt(RANK_SELECTORS.length)])).append(' ');
+            }
+            if (random.nextInt(3) == 0) {
+                text.append('[').append(playerName(random), 0, 3).append("] ");
+            }
+            text.append(playerName(random));
+            if (random.nextInt(disguisedEvery) == 0) {
+                text.append(' ').append(glyph('\uE060')).append(tag);
+            } else if (random.nextBoolean()) {
+                text.append("\n\u00a77Lv. ").append(1 + random.nextInt(106)).append(" Warrior");
+            }
+            tags[i] = text.toString();
+        }
+        return tags;
+    }
+
+    static String glyph(char selector) {
+        return new String(new char[] {selector, WynnFontDecoder.GLYPH_MARKER_HIGH, WynnFontDecoder.GLYPH_MARKER_LOW});
+    }
+
+    static String glyphs(String text) {
+        StringBuilder out = new StringBuilder(text.length() * 3);
+        for (char selector : WynnFontDecoder.encodeSelectors(text)) {
+            out.append(glyph(selector));
+        }
+        return out.toString();
+    }
+}
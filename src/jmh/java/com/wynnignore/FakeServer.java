@@ -0,0 +1,142 @@
+package com.wynnignore;
+
+import net.minecraft.text.Text;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * An in-process stand-in for the server side of the ignore protocol. It receives the commands the queue
+ * sends and answers with the server's real confirmation lines after a configurable delay. It can also
+ * drop commands, rate-limit them or answer removals with "is not being ignored".
+ * Replies are delivered from {@link #deliver()}, which the driver calls once per simulated tick.
+ */
+class FakeServer implements ClientBridge {
+    /**
+     * Behaviour of the simulated server. Times are in milliseconds.
+     */
+    static class Settings {
+        long latencyMs = 80;
+        long jitterMs = 40;
+        // Probability that a command is lost without any reply
+        double dropRate = 0;
+        // Probability that a removal is answered with "is not being ignored" instead
+        double notIgnoredRate = 0;
+        // Commands accepted per second before further ones are dropped; 0 for no limit
+        int commandsPerSecond = 0;
+        long seed = 1;
+    }
+
+    private record Reply(long time, long order, String text) {
+    }
+
+    private final Settings settings;
+    private final LongSupplier clock;
+    private final Random random;
+    private final Set<String> ignored = new HashSet<>();
+    private final PriorityQueue<Reply> replies = new PriorityQueue<>(
+        Comparator.comparingLong(Reply::time).thenComparingLong(Reply::order));
+
+    private long replyOrder = 0;
+    private long bucketStart = Long.MIN_VALUE;
+    private int bucketCount = 0;
+
+    int commandsReceived = 0;
+    int commandsDropped = 0;
+    int commandsRateLimited = 0;
+    int messagesShown = 0;
+
+    FakeServer(Settings settings, LongSupplier clock) {
+        this.settings = settings;
+        this.clock = clock;
+        this.random = new Random(settings.seed);
+    }
+
+    /**
+     * Marks players as already ignored on the server, as if ignored in an earlier session.
+     */
+    void preload(Iterable<String> players) {
+        for (String player : players) {
+            ignored.add(player.toLowerCase());
+        }
+    }
+
+    int ignoredCount() {
+        return ignored.size();
+    }
+
+    boolean hasPendingReplies() {
+        return !replies.isEmpty();
+    }
+
+    /**
+     * Hands every reply that is due to the mod's chat handler.
+     */
+    void deliver() {
+        long now = clock.getAsLong();
+        Reply reply;
+        while ((reply = replies.peek()) != null && reply.time() - now <= 0) {
+            replies.poll();
+            CommandHandler.onChatMessage(reply.text());
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    @Override
+    public void sendCommand(String command) {
+        commandsReceived++;
+        long now = clock.getAsLong();
+        if (isRateLimited(now)) {
+            commandsRateLimited++;
+            return;
+        }
+        if (random.nextDouble() < settings.dropRate) {
+            commandsDropped++;
+            return;
+        }
+
+        String text;
+        if (command.startsWith("ignore remove ")) {
+            String player = command.substring("ignore remove ".length());
+            boolean wasIgnored = ignored.remove(player.toLowerCase());
+            if (!wasIgnored || random.nextDouble() < settings.notIgnoredRate) {
+                text = "\u00a7c" + player + " is not being ignored.";
+            } else {
+                text = "\u00a7e" + player + " has been removed from your ignore list.";
+            }
+        } else if (command.startsWith("ignore ")) {
+            String player = command.substring("ignore ".length());
+            ignored.add(player.toLowerCase());
+            text = "\u00a7e" + player + " has been added to your ignore list.";
+        } else {
+            return;
+        }
+
+        long delayMs = settings.latencyMs + (settings.jitterMs > 0 ? random.nextLong(settings.jitterMs + 1) : 0);
+        replies.add(new Reply(now + delayMs * 1_000_000L, replyOrder++, text));
+    }
+
+    @Override
+    public void showMessage(Text message, boolean overlay) {
+        messagesShown++;
+    }
+
+    private boolean isRateLimited(long now) {
+        if (settings.commandsPerSecond <= 0) {
+            return false;
+        }
+        if (bucketStart == Long.MIN_VALUE || now - bucketStart >= 1_000_000_000L) {
+            bucketStart = now;
+            bucketCount = 0;
+        }
+        return ++bucketCount > settings.commandsPerSecond;
+    }
+}
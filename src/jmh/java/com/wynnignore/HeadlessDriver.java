@@ -0,0 +1,166 @@
+package com.wynnignore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the command queue end to end against {@link FakeServer} without a Minecraft client.
+ * Time is simulated: each loop iteration advances the clock by one client tick, delivers due replies
+ * and ticks the scheduler, so a scenario that takes minutes in game finishes in milliseconds and
+ * gives the same result on every run.
+ * Run with {@code ./gradlew simulateQueue}.
+ */
+public final class HeadlessDriver {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MAX_SIMULATED_NANOS = TimeUnit.HOURS.toNanos(2);
+
+    private final FakeServer.Settings settings;
+    private long now = 0;
+    private FakeServer server;
+    private IgnoreListManager manager;
+    private Path directory;
+
+    private HeadlessDriver(FakeServer.Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws IOException {
+        ModConfig.useDetachedInstance();
+        System.out.printf("%-34s %10s %8s %6s %6s %8s %9s %8s%n",
+            "scenario", "simulated", "wall", "sent", "lost", "limited", "tracked", "server");
+
+        unignoreAll("unignore all 1000", 1000, new FakeServer.Settings());
+
+        FakeServer.Settings lossy = new FakeServer.Settings();
+        lossy.dropRate = 0.1;
+        unignoreAll("unignore all 1000, 10% loss", 1000, lossy);
+
+        FakeServer.Settings notIgnored = new FakeServer.Settings();
+        notIgnored.notIgnoredRate = 0.5;
+        unignoreAll("unignore all 500, 50% not ignored", 500, notIgnored);
+
+        FakeServer.Settings storm = new FakeServer.Settings();
+        storm.dropRate = 0.3;
+        storm.commandsPerSecond = 4;
+        storm.latencyMs = 250;
+        storm.jitterMs = 250;
+        unignoreAll("retry storm 300", 300, storm);
+
+        warBurst("war burst 40 behind 500 unignores", 40, 500, new FakeServer.Settings());
+    }
+
+    private static void unignoreAll(String name, int players, FakeServer.Settings settings) throws IOException {
+        HeadlessDriver driver = new HeadlessDriver(settings);
+        try {
+            driver.start(Corpus.playerNames(players, 11));
+            long wallStart = System.nanoTime();
+            CommandHandler.handleUnignore("all");
+            driver.runUntil(driver::isIdle);
+            driver.report(name, System.nanoTime() - wallStart);
+        } finally {
+            driver.stop();
+        }
+    }
+
+    /**
+     * Queues a war ignore burst while a bulk unignore is running and reports when the war
+     * ignores were all confirmed, not when the bulk work drained.
+     */
+    private static void warBurst(String name, int warPlayers, int bulkPlayers, FakeServer.Settings settings) throws IOException {
+        HeadlessDriver driver = new HeadlessDriver(settings);
+        try {
+            driver.start(Corpus.playerNames(bulkPlayers, 12));
+            List<String> enemies = Corpus.playerNames(warPlayers, 13);
+            CommandHandler.handleUnignore("all");
+            driver.runFor(TimeUnit.SECONDS.toNanos(5));
+
+            long wallStart = System.nanoTime();
+            long simulatedStart = driver.now;
+            CommandHandler.queueWarIgnores(enemies, "");
+            driver.runUntil(() -> enemies.stream().allMatch(driver.manager::isIgnored));
+            long warNanos = driver.now - simulatedStart;
+            driver.report(name, System.nanoTime() - wallStart, warNanos);
+        } finally {
+            driver.stop();
+        }
+    }
+
+    private void start(List<String> players) throws IOException {
+        directory = Files.createTempDirectory("wynnignore-sim");
+        IgnoreLists.writeSnapshot(directory, players, false);
+        manager = new IgnoreListManager(directory);
+        manager.load();
+        WynnIgnoreMod.setIgnoreListManager(manager);
+
+        server = new FakeServer(settings, () -> now);
+        server.preload(players);
+        WynnIgnoreMod.getScheduler().setClock(() -> now);
+        CommandHandler.clearCommands();
+        CommandHandler.setClientBridge(server);
+    }
+
+    private void stop() throws IOException {
+        CommandHandler.clearCommands();
+        CommandHandler.setClientBridge(ClientBridge.MINECRAFT);
+        WynnIgnoreMod.getScheduler().setClock(System::nanoTime);
+        WynnIgnoreMod.setIgnoreListManager(null);
+        if (manager != null) {
+            manager.shutdown();
+        }
+        if (directory != null) {
+            IgnoreLists.delete(directory);
+        }
+    }
+
+    private void tick() {
+        now += TICK_NANOS;
+        server.deliver();
+        WynnIgnoreMod.getScheduler().tick();
+    }
+
+    private void runUntil(BooleanSupplier done) {
+        long limit = now + MAX_SIMULATED_NANOS;
+        while (!done.getAsBoolean()) {
+            if (now - limit >= 0) {
+                throw new IllegalStateException("Scenario did not finish within the simulated time limit");
+            }
+            tick();
+        }
+    }
+
+    private void runFor(long nanos) {
+        long end = now + nanos;
+        while (now - end < 0) {
+            tick();
+        }
+    }
+
+    private boolean isIdle() {
+        for (CommandQueue.Lane lane : CommandQueue.Lane.values()) {
+            if (CommandHandler.getQueueDepth(lane) > 0) {
+                return false;
+            }
+        }
+        return CommandHandler.getInFlightCount() == 0 && !server.hasPendingReplies();
+    }
+
+    private void report(String name, long wallNanos) {
+        report(name, wallNanos, now);
+    }
+
+    private void report(String name, long wallNanos, long simulatedNanos) {
+        System.out.printf("%-34s %9.1fs %6.0fms %6d %6d %8d %9d %8d%n",
+            name,
+            simulatedNanos / 1e9,
+            wallNanos / 1e6,
+            server.commandsReceived,
+            server.commandsDropped,
+            server.commandsRateLimited,
+            manager.getIgnoredPlayers().size(),
+            server.ignoredCount());
+    }
+}
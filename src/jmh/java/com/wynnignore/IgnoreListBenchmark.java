@@ -0,0 +1,138 @@
+package com.wynnignore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups and the per-tick expiry check on ignore lists of increasing size. A quarter of each list is
+ * timed, so the largest list also carries 250,000 timed ignores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class IgnoreListBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private Path directory;
+    private IgnoreListManager manager;
+    private String[] ignored;
+    private String[] strangers;
+    // Zero to three letters typed after /unignore
+    private String[] prefixes;
+    // Four letters of players not on the list, which match few or no timed ignores
+    private String[] strangerPrefixes;
+    private String[] suggestions;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ModConfig.useDetachedInstance();
+        directory = Files.createTempDirectory("wynnignore-bench");
+        List<String> names = Corpus.playerNames(size, 7);
+        IgnoreLists.writeSnapshot(directory, names, false);
+        manager = new IgnoreListManager(directory);
+        manager.load();
+
+        ignored = IgnoreLists.sample(names, 1024);
+        strangers = Corpus.playerNames(1024, 8).toArray(new String[0]);
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = ignored[i].toLowerCase();
+            prefixes[i] = name.substring(0, Math.min(name.length(), i & 3));
+        }
+        strangerPrefixes = new String[1024];
+        for (int i = 0; i < strangerPrefixes.length; i++) {
+            String name = strangers[i].toLowerCase();
+            strangerPrefixes[i] = name.substring(0, Math.min(name.length(), 4));
+        }
+        suggestions = new String[50];
+        manager.getNameIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        manager.shutdown();
+        IgnoreLists.delete(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public boolean isIgnoredHit(Cursor cursor) {
+        return manager.isIgnored(ignored[cursor.next++ & 1023]);
+    }
+
+    @Benchmark
+    public boolean isIgnoredMiss(Cursor cursor) {
+        return manager.isIgnored(strangers[cursor.next++ & 1023]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<String> getIgnoredPlayers() {
+        return manager.getIgnoredPlayers();
+    }
+
+    /**
+     * One /unignore completion lookup; with -prof gc, allocation should not grow with the list.
+     */
+    @Benchmark
+    public int suggest(Cursor cursor) {
+        return manager.getNameIndex().suggest(prefixes[cursor.next++ & 1023], suggestions);
+    }
+
+    /**
+     * A completion lookup for a prefix few timed ignores share, which must not visit all of them.
+     */
+    @Benchmark
+    public int suggestStranger(Cursor cursor) {
+        return manager.getNameIndex().suggest(strangerPrefixes[cursor.next++ & 1023], suggestions);
+    }
+
+    /**
+     * Suggestion source right after a change, which rebuilds the snapshot and its sorted view.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> sortedAfterChange(Cursor cursor) {
+        String name = strangers[cursor.next++ & 1023];
+        if (manager.isIgnored(name)) {
+            manager.removePlayer(name);
+        } else {
+            manager.addPlayer(name);
+        }
+        return manager.getSnapshot().getSorted();
+    }
+
+    /**
+     * The check the scheduler runs when nothing is due.
+     */
+    @Benchmark
+    public void checkTimedIgnoreExpiry() {
+        manager.checkTimedIgnoreExpiry();
+    }
+}
@@ -0,0 +1,58 @@
+package com.wynnignore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Prepares ignore list files for benchmarks without going through the mutators, which log every change.
+ */
+final class IgnoreLists {
+    private IgnoreLists() {
+    }
+
+    /**
+     * Writes a snapshot where every fourth player is timed-ignored for a week, in the format
+     * IgnoreListManager reads from the directory.
+     */
+    static void writeSnapshot(Path directory, List<String> names, boolean binary) throws IOException {
+        long expiry = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(7);
+        Map<String, Long> timed = new HashMap<>();
+        for (int i = 0; i < names.size(); i += 4) {
+            timed.put(names.get(i).toLowerCase(), expiry);
+        }
+        List<String> lower = names.stream().map(String::toLowerCase).toList();
+
+        Path binaryPath = directory.resolve("wynnignore.bin");
+        BinarySnapshot.write(binaryPath, 1, lower, timed);
+        if (!binary) {
+            IgnoreListManager.convertSnapshot(binaryPath, directory.resolve("wynnignore.json"));
+            Files.delete(binaryPath);
+        }
+    }
+
+    /**
+     * Picks count names spread evenly over the list.
+     */
+    static String[] sample(List<String> names, int count) {
+        String[] sample = new String[count];
+        for (int i = 0; i < count; i++) {
+            sample[i] = names.get((int) ((long) i * names.size() / count));
+        }
+        return sample;
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
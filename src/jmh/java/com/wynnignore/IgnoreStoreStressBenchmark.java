@@ -0,0 +1,291 @@
+package com.wynnignore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One ignore list shared by a chat thread confirming ignores, a tick thread adding timed ignores and
+ * running the expiry check, and two render threads looking players up.
+ * Each writer toggles names from its own pool in a fixed pattern, so after every iteration the exact
+ * contents of the list are known; a lost update or a ConcurrentModificationException fails the run.
+ * The synchronized store is {@link LegacyIgnoreStore}; {@code single} runs the same operations on one
+ * thread to compare the stores without contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Group)
+public class IgnoreStoreStressBenchmark {
+    private static final int POOL = 1024;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"concurrent", "synchronized"})
+    public String store;
+
+    private Path directory;
+    private Store target;
+    private String[] chatPool;
+    private String[] tickPool;
+    private String[] lookups;
+    // Each counter is only written by its own writer thread
+    private long chatOps;
+    private long tickOps;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ModConfig.useDetachedInstance();
+        directory = Files.createTempDirectory("wynnignore-stress");
+        List<String> names = Corpus.playerNames(size, 7);
+        IgnoreLists.writeSnapshot(directory, names, false);
+        IgnoreListManager manager = new IgnoreListManager(directory);
+        manager.load();
+        if (store.equals("synchronized")) {
+            target = new LegacyStore(new LegacyIgnoreStore(manager.getSnapshot(), directory));
+            manager.shutdown();
+        } else {
+            target = new ConcurrentStore(manager);
+        }
+
+        chatPool = Corpus.playerNames(POOL, 21).toArray(new String[0]);
+        tickPool = Corpus.playerNames(POOL, 22).toArray(new String[0]);
+        // Half known players, a quarter from each writer pool
+        lookups = new String[POOL];
+        String[] known = IgnoreLists.sample(names, POOL);
+        for (int i = 0; i < POOL; i++) {
+            lookups[i] = switch (i & 3) {
+                case 0 -> chatPool[i];
+                case 1 -> tickPool[i];
+                default -> known[i];
+            };
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        int present = checkPool(chatPool, chatOps) + checkPool(tickPool, tickOps);
+        int actual = target.size();
+        if (actual != size + present) {
+            throw new IllegalStateException("Expected " + (size + present) + " ignored players but found " + actual);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        target.shutdown();
+        IgnoreLists.delete(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    /**
+     * Ignore and unignore confirmations handled from chat.
+     */
+    @Benchmark
+    @Group("store")
+    @GroupThreads(1)
+    public void chat() {
+        long op = chatOps++;
+        String name = chatPool[(int) (op % POOL)];
+        if (isAddRound(op)) {
+            target.addPlayer(name);
+        } else {
+            target.removePlayer(name);
+        }
+    }
+
+    /**
+     * War ignores, their removal and the expiry check the scheduler runs.
+     */
+    @Benchmark
+    @Group("store")
+    @GroupThreads(1)
+    public void tick() {
+        long op = tickOps++;
+        String name = tickPool[(int) (op % POOL)];
+        if (isAddRound(op)) {
+            target.addTimedIgnore(name, 60);
+        } else {
+            target.removePlayer(name);
+        }
+        if ((op & 63) == 0) {
+            target.checkTimedIgnoreExpiry();
+        }
+    }
+
+    /**
+     * Nametag and chat filtering lookups.
+     */
+    @Benchmark
+    @Group("store")
+    @GroupThreads(2)
+    public boolean render(Cursor cursor) {
+        String name = lookups[cursor.next++ & (POOL - 1)];
+        return target.isIgnored(name) && target.getRemainingMinutes(name) != 0;
+    }
+
+    /**
+     * One chat change, one tick change and two lookups on a single thread.
+     */
+    @Benchmark
+    public boolean single(Cursor cursor) {
+        chat();
+        tick();
+        return render(cursor) | render(cursor);
+    }
+
+    /**
+     * Each pass over a pool adds every name, the next pass removes them again.
+     */
+    private static boolean isAddRound(long op) {
+        return (op / POOL) % 2 == 0;
+    }
+
+    /**
+     * Checks every name in the pool against what its writer's operation count implies and returns how many should be present.
+     */
+    private int checkPool(String[] pool, long ops) {
+        int present = 0;
+        for (int i = 0; i < POOL; i++) {
+            long touches = ops / POOL + (i < ops % POOL ? 1 : 0);
+            boolean expected = touches > 0 && isAddRound((touches - 1) * POOL);
+            if (target.isIgnored(pool[i]) != expected) {
+                throw new IllegalStateException("Lost update for " + pool[i] + ": expected ignored=" + expected);
+            }
+            if (expected) {
+                present++;
+            }
+        }
+        return present;
+    }
+
+    /**
+     * The operations the benchmark runs, so both stores go through the same code.
+     */
+    private interface Store {
+        void addPlayer(String name);
+
+        void addTimedIgnore(String name, int minutes);
+
+        void removePlayer(String name);
+
+        void checkTimedIgnoreExpiry();
+
+        boolean isIgnored(String name);
+
+        long getRemainingMinutes(String name);
+
+        int size();
+
+        void shutdown();
+    }
+
+    private record ConcurrentStore(IgnoreListManager manager) implements Store {
+        @Override
+        public void addPlayer(String name) {
+            manager.addPlayer(name);
+        }
+
+        @Override
+        public void addTimedIgnore(String name, int minutes) {
+            manager.addTimedIgnore(name, minutes);
+        }
+
+        @Override
+        public void removePlayer(String name) {
+            manager.removePlayer(name);
+        }
+
+        @Override
+        public void checkTimedIgnoreExpiry() {
+            manager.checkTimedIgnoreExpiry();
+        }
+
+        @Override
+        public boolean isIgnored(String name) {
+            return manager.isIgnored(name);
+        }
+
+        @Override
+        public long getRemainingMinutes(String name) {
+            return manager.getRemainingMinutes(name);
+        }
+
+        @Override
+        public int size() {
+            return manager.getIgnoredPlayers().size();
+        }
+
+        @Override
+        public void shutdown() {
+            manager.shutdown();
+        }
+    }
+
+    private record LegacyStore(LegacyIgnoreStore legacy) implements Store {
+        @Override
+        public void addPlayer(String name) {
+            legacy.addPlayer(name);
+        }
+
+        @Override
+        public void addTimedIgnore(String name, int minutes) {
+            legacy.addTimedIgnore(name, minutes);
+        }
+
+        @Override
+        public void removePlayer(String name) {
+            legacy.removePlayer(name);
+        }
+
+        @Override
+        public void checkTimedIgnoreExpiry() {
+            legacy.checkTimedIgnoreExpiry();
+        }
+
+        @Override
+        public boolean isIgnored(String name) {
+            return legacy.isIgnored(name);
+        }
+
+        @Override
+        public long getRemainingMinutes(String name) {
+            return legacy.getRemainingMinutes(name);
+        }
+
+        @Override
+        public int size() {
+            return legacy.size();
+        }
+
+        @Override
+        public void shutdown() {
+            legacy.shutdown();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.wynnignore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Reference copy of the in-memory ignore store as it was before it was made concurrent: plain hash
+ * collections behind the manager's monitor. Back then lookups read the collections without the lock,
+ * which was unsafe; here they take it, which is the smallest fix that would have made the old store
+ * correct and what the concurrent store is measured against. Changes are appended to a journal on a
+ * write-behind thread like the real manager does, but snapshots and compaction are left out.
+ * Not used by the mod itself.
+ */
+final class LegacyIgnoreStore {
+    private final Set<String> ignoredPlayers = new HashSet<>();
+    private final Map<String, Long> timedIgnores = new HashMap<>();
+    private final Set<String> pendingUnignores = new HashSet<>();
+    private final PriorityQueue<ExpiryEntry> expiryQueue = new PriorityQueue<>(Comparator.comparingLong(ExpiryEntry::expiryTime));
+    private final List<IgnoreJournal.Entry> pendingJournal = new ArrayList<>();
+    private final IgnoreJournal journal;
+    private final WriteBehindSaver saver = new WriteBehindSaver("WynnIgnore-Legacy-IO", 1000, this::persist);
+
+    /**
+     * Starts from the contents of a snapshot and journals changes to a file in the given directory.
+     */
+    LegacyIgnoreStore(IgnoreListSnapshot snapshot, Path directory) {
+        ignoredPlayers.addAll(snapshot.getPlayers());
+        timedIgnores.putAll(snapshot.getTimedIgnores());
+        for (Map.Entry<String, Long> entry : timedIgnores.entrySet()) {
+            expiryQueue.add(new ExpiryEntry(entry.getKey(), entry.getValue()));
+        }
+        journal = new IgnoreJournal(directory.resolve("legacy.journal"));
+    }
+
+    public synchronized void addPlayer(String name) {
+        String lowerName = name.toLowerCase();
+        if (ignoredPlayers.add(lowerName)) {
+            recordChange(IgnoreJournal.OP_ADD, lowerName, 0);
+            WynnIgnoreMod.LOGGER.info("Added {} to ignore list", name);
+        }
+    }
+
+    public synchronized void removePlayer(String name) {
+        String lowerName = name.toLowerCase();
+        boolean removed = ignoredPlayers.remove(lowerName);
+        boolean wasTimed = timedIgnores.remove(lowerName) != null;
+        if (wasTimed) {
+            compactExpiryQueue();
+        }
+        pendingUnignores.remove(lowerName);
+        if (removed || wasTimed) {
+            recordChange(IgnoreJournal.OP_REMOVE, lowerName, 0);
+        }
+        if (removed) {
+            WynnIgnoreMod.LOGGER.info("Removed {} from ignore list", name);
+        }
+    }
+
+    public synchronized int size() {
+        return ignoredPlayers.size();
+    }
+
+    public synchronized boolean isIgnored(String name) {
+        return ignoredPlayers.contains(name.toLowerCase());
+    }
+
+    public synchronized void addTimedIgnore(String name, int durationMinutes) {
+        String lowerName = name.toLowerCase();
+        ignoredPlayers.add(lowerName);
+        long expiryTime = System.currentTimeMillis() + (durationMinutes * 60 * 1000L);
+        timedIgnores.put(lowerName, expiryTime);
+        pendingUnignores.remove(lowerName);
+        expiryQueue.add(new ExpiryEntry(lowerName, expiryTime));
+        recordChange(IgnoreJournal.OP_TIMED_ADD, lowerName, expiryTime);
+        WynnIgnoreMod.LOGGER.info("Timed-ignored {} (will auto-unignore in {} minutes)", name, durationMinutes);
+    }
+
+    public synchronized void checkTimedIgnoreExpiry() {
+        ExpiryEntry head = expiryQueue.peek();
+        if (head == null) {
+            return;
+        }
+
+        long currentTime = System.currentTimeMillis();
+        if (head.expiryTime() > currentTime) {
+            return;
+        }
+
+        while ((head = expiryQueue.peek()) != null && head.expiryTime() <= currentTime) {
+            expiryQueue.poll();
+            String playerName = head.name();
+            Long expiry = timedIgnores.get(playerName);
+            if (expiry == null || expiry != head.expiryTime() || pendingUnignores.contains(playerName)) {
+                continue;
+            }
+            // The real store queues the unignore here; the stress benchmark never lets an ignore expire
+            pendingUnignores.add(playerName);
+        }
+    }
+
+    public synchronized long getRemainingMinutes(String name) {
+        Long expiry = timedIgnores.get(name.toLowerCase());
+        if (expiry == null) {
+            return -1;
+        }
+        return IgnoreListSnapshot.remainingMinutes(expiry, System.currentTimeMillis());
+    }
+
+    public void shutdown() {
+        saver.shutdown();
+    }
+
+    private void compactExpiryQueue() {
+        if (expiryQueue.size() > 2 * timedIgnores.size() + 64) {
+            expiryQueue.clear();
+            for (Map.Entry<String, Long> entry : timedIgnores.entrySet()) {
+                expiryQueue.add(new ExpiryEntry(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    private void recordChange(byte op, String name, long expiryTime) {
+        pendingJournal.add(new IgnoreJournal.Entry(op, name, expiryTime));
+        saver.markDirty();
+    }
+
+    private void persist() {
+        List<IgnoreJournal.Entry> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(pendingJournal);
+            pendingJournal.clear();
+        }
+        try {
+            journal.append(1, entries);
+        } catch (IOException e) {
+            WynnIgnoreMod.LOGGER.error("Failed to append to legacy journal", e);
+        }
+    }
+
+    private record ExpiryEntry(String name, long expiryTime) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.wynnignore;
+
+/**
+ * Reference copies of text handling that the mod has since replaced, kept so benchmarks can compare
+ * the current code against what it replaced. Not used by the mod itself.
+ */
+final class LegacyText {
+    private static final char WYNN_FONT_SURR_HIGH = '\uDAFF';
+    private static final char WYNN_FONT_SURR_LOW = '\uDFFF';
+
+    // The BMP PUA chars (glyph selectors) that spell "DISGUISED" in Wynncraft's custom font.
+    // Each of these is followed by the DAFF DFFF marker in the actual text, but we only
+    // compare the varying BMP chars to avoid surrogate encoding issues.
+    static final char[] DISGUISED_GLYPHS = {
+        '\uE060', '\uE033', '\uE038', '\uE042', '\uE036',
+        '\uE044', '\uE038', '\uE042', '\uE034', '\uE033'
+    };
+
+    private LegacyText() {
+    }
+
+    /**
+     * Strips formatting codes, PUA characters, and other special characters from a message.
+     */
+    static String stripSpecialCharacters(String message) {
+        if (message == null) {
+            return "";
+        }
+        String stripped = message.replaceAll("\u00a7.", "");
+        stripped = stripped.replaceAll("[\\uE000-\\uF8FF]", "");
+        stripped = stripped.replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F]", "");
+        return stripped;
+    }
+
+    /**
+     * The confirmation check onChatMessage ran for its single pending player before the matcher existed.
+     */
+    static boolean confirms(String message, String pendingPlayer, boolean pendingIsAdd) {
+        String lowerMessage = stripSpecialCharacters(message).toLowerCase();
+        String lowerPlayer = pendingPlayer.toLowerCase();
+        if (pendingIsAdd) {
+            return lowerMessage.contains(lowerPlayer) && lowerMessage.contains("has been added to your ignore list");
+        }
+        return lowerMessage.contains(lowerPlayer)
+            && (lowerMessage.contains("has been removed from your ignore list") || lowerMessage.contains("is not being ignored"));
+    }
+
+    /**
+     * Strips PUA characters, surrogate pairs, and Minecraft formatting codes from a string,
+     * keeping only basic printable characters.
+     */
+    static String stripPUACharacters(String str) {
+        if (str == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            // Skip surrogate pairs entirely
+            if (Character.isHighSurrogate(c)) {
+                if (i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    i++;
+                }
+                continue;
+            }
+            if (Character.isLowSurrogate(c)) continue;
+            // Skip Private Use Area (U+E000-U+F8FF)
+            if (c >= '\uE000' && c <= '\uF8FF') continue;
+            // Skip Minecraft formatting codes
+            if (c == '\u00a7' && i + 1 < str.length()) {
+                i++;
+                continue;
+            }
+            // Keep spaces, basic punctuation, and alphanumerics
+            if (c == ' ' || c == '-' || c == '\'' || c == '_') {
+                sb.append(c);
+            } else if (Character.isLetterOrDigit(c) && c < 0x2000) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Checks if a char position is part of a Wynncraft custom font glyph:
+     * a BMP PUA char (U+E000-U+F8FF) followed by the marker surrogate pair U+DAFF U+DFFF.
+     */
+    private static boolean isWynnFontGlyph(String text, int i) {
+        if (i + 2 >= text.length()) return false;
+        char c = text.charAt(i);
+        return c >= '\uE000' && c <= '\uF8FF'
+            && text.charAt(i + 1) == WYNN_FONT_SURR_HIGH
+            && text.charAt(i + 2) == WYNN_FONT_SURR_LOW;
+    }
+
+    /**
+     * Scans for the DISGUISED glyph sequence in the text and returns its start index, or -1.
+     * Each glyph is 3 chars: [BMP PUA] [DAFF] [DFFF], so the full sequence is 30 chars.
+     */
+    private static int findDisguisedTag(String text) {
+        int seqLen = DISGUISED_GLYPHS.length * 3;
+        if (text.length() < seqLen) return -1;
+        for (int i = 0; i <= text.length() - seqLen; i++) {
+            boolean match = true;
+            for (int j = 0; j < DISGUISED_GLYPHS.length; j++) {
+                int pos = i + j * 3;
+                if (!isWynnFontGlyph(text, pos) || text.charAt(pos) != DISGUISED_GLYPHS[j]) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Extracts a player name from a disguised player's text display entity.
+     * Finds the DISGUISED glyph sequence, then takes the stripped text before it as the username.
+     * Handles both formats: [username] [DISGUISED] and [PUA rank] [username] [DISGUISED].
+     */
+    static String extractDisguisedPlayerName(String text) {
+        if (text == null || text.length() < 6) return null;
+
+        int tagIndex = findDisguisedTag(text);
+        if (tagIndex < 0) return null;
+
+        // Strip PUAs/surrogates from everything before the DISGUISED tag
+        String stripped = stripPUACharacters(text.substring(0, tagIndex));
+        if (stripped.isEmpty()) return null;
+
+        // If there are multiple tokens (e.g. guild tag + username), take the last one
+        String[] tokens = stripped.split("\\s+");
+        String name = tokens[tokens.length - 1];
+
+        // Minecraft usernames are 3-16 chars, alphanumeric + underscore
+        if (name.length() < 3 || name.length() > 16) return null;
+        if (!name.matches("[A-Za-z0-9_]+")) return null;
+        return name;
+    }
+}
@@ -0,0 +1,87 @@
+package com.wynnignore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full snapshot writes and loads in both formats.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean binary;
+
+    private Path directory;
+    private IgnoreListManager manager;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ModConfig.useDetachedInstance().setBinarySnapshots(binary);
+        directory = Files.createTempDirectory("wynnignore-bench");
+        List<String> names = Corpus.playerNames(size, 7);
+        IgnoreLists.writeSnapshot(directory, names, binary);
+        manager = new IgnoreListManager(directory);
+        manager.load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        manager.shutdown();
+        IgnoreLists.delete(directory);
+    }
+
+    @Benchmark
+    public void save() {
+        manager.save();
+    }
+
+    @Benchmark
+    public IgnoreListManager load(FreshManager fresh) {
+        fresh.manager.load();
+        return fresh.manager;
+    }
+
+    /**
+     * A manager that has not loaded anything yet, created for each invocation so every load starts
+     * from empty collections instead of adding to the previous one.
+     */
+    @State(Scope.Thread)
+    public static class FreshManager {
+        IgnoreListManager manager;
+
+        @Setup(Level.Invocation)
+        public void create(PersistenceBenchmark benchmark) {
+            manager = new IgnoreListManager(benchmark.directory);
+        }
+
+        @TearDown(Level.Invocation)
+        public void shutdown() {
+            manager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.wynnignore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.text.Text;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message and per-nametag text handling, against the implementations it replaced.
+ * Each invocation takes the next entry of a fixed corpus so branch history cannot memorize one input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TextBenchmark {
+    private static final int CORPUS_SIZE = 1024;
+
+    // How often a chat line is a confirmation or a nametag carries the DISGUISED tag: 1 in N
+    @Param({"50", "2"})
+    public int tagEvery;
+
+    private String[] chat;
+    private String[] nametags;
+    private String pendingPlayer;
+    private int next;
+
+    @Setup
+    public void setup() {
+        ModConfig.useDetachedInstance();
+        chat = Corpus.chat(CORPUS_SIZE, 42, tagEvery);
+        nametags = Corpus.nametags(CORPUS_SIZE, 42, tagEvery);
+        pendingPlayer = "Pending_Player1";
+        // A confirmation for a longer name starting with the pending player's, so the name check runs in
+        // full but the command stays in flight for every invocation
+        chat[CORPUS_SIZE / 2] = Corpus.confirmation(true, pendingPlayer + "0");
+
+        // Send the pending player's ignore to a client that drops it, leaving it waiting for a confirmation.
+        // The scheduler is never ticked here, so it never times out.
+        CommandHandler.clearCommands();
+        CommandHandler.setClientBridge(new ClientBridge() {
+            @Override
+            public boolean isConnected() {
+                return true;
+            }
+
+            @Override
+            public void sendCommand(String command) {
+            }
+
+            @Override
+            public void showMessage(Text message, boolean overlay) {
+            }
+        });
+        CommandHandler.queueTimedIgnore(pendingPlayer, 30);
+        if (CommandHandler.getInFlightCount() != 1) {
+            throw new IllegalStateException("Pending command was not sent");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        CommandHandler.clearCommands();
+        CommandHandler.setClientBridge(ClientBridge.MINECRAFT);
+    }
+
+    private String nextChat() {
+        return chat[next++ & (CORPUS_SIZE - 1)];
+    }
+
+    private String nextNametag() {
+        return nametags[next++ & (CORPUS_SIZE - 1)];
+    }
+
+    @Benchmark
+    public String extractDisguisedPlayerName() {
+        return CommandHandler.extractDisguisedPlayerName(nextNametag());
+    }
+
+    @Benchmark
+    public String legacyExtractDisguisedPlayerName() {
+        return LegacyText.extractDisguisedPlayerName(nextNametag());
+    }
+
+    @Benchmark
+    public String legacyStripPUACharacters() {
+        return LegacyText.stripPUACharacters(nextNametag());
+    }
+
+    @Benchmark
+    public String decodeNametag() {
+        return WynnFontDecoder.decode(nextNametag());
+    }
+
+    @Benchmark
+    public String legacyStripSpecialCharacters() {
+        return LegacyText.stripSpecialCharacters(nextChat());
+    }
+
+    @Benchmark
+    public int matchPhrases() {
+        return ConfirmationMatcher.matchPhrases(nextChat());
+    }
+
+    /**
+     * Handles each chat message while a command is in flight.
+     */
+    @Benchmark
+    public boolean onChatMessagePending() {
+        return CommandHandler.onChatMessage(nextChat());
+    }
+
+    @Benchmark
+    public boolean legacyOnChatMessagePending() {
+        return LegacyText.confirms(nextChat(), pendingPlayer, true);
+    }
+}
@@ -0,0 +1,167 @@
+package com.wynnignore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary snapshot of an ignore list, decoded without reflection.
+ *
+ * Layout (big-endian): {@code MAGIC}, version, journal generation, name count, then every name in
+ * the order it was added, oldest first, as a length byte and its UTF-8 bytes followed by its expiry
+ * timestamp (0 for a permanent ignore), then a CRC32 of everything before it.
+ * Names are stored already lowercased so loading does no normalization.
+ * Version 3 files, which stored timed names first with their expiries packed ahead of the names,
+ * are still read.
+ */
+public final class BinarySnapshot {
+    public static final int VERSION = 4;
+
+    private static final int MAGIC = 0x57494233; // "WIB3"
+    private static final int HEADER_SIZE = 20;
+    private static final int MAX_NAME_BYTES = 255;
+    // Expiry written for names without a timed ignore
+    private static final long PERMANENT = 0;
+
+    /**
+     * Format version and journal generation of a snapshot that was read.
+     */
+    public record Header(int version, long generation) {
+    }
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Writes the snapshot to the given path in the iteration order of ignoredPlayers, which callers
+     * pass oldest first. Names are expected to be lowercased already.
+     */
+    public static void write(Path path, long generation, Collection<String> ignoredPlayers, Map<String, Long> timedIgnores)
+            throws IOException {
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generation);
+            out.writeInt(ignoredPlayers.size());
+            for (String name : ignoredPlayers) {
+                writeName(out, name);
+                Long expiry = timedIgnores.get(name);
+                out.writeLong(expiry != null ? expiry : PERMANENT);
+            }
+            out.flush();
+            // The checksum itself is written past the checked stream
+            int checksum = (int) crc.getValue();
+            out.writeInt(checksum);
+        }
+    }
+
+    private static void writeName(DataOutputStream out, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IOException("Player name too long for binary snapshot: " + name);
+        }
+        out.writeByte(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the snapshot into the given collections, adding names in the order they were written.
+     */
+    public static Header read(Path path, Collection<String> ignoredPlayers, Map<String, Long> timedIgnores) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + 4 || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid binary snapshot size " + size);
+            }
+            // Read into the heap rather than mapped: a mapping stays open until it is garbage collected,
+            // and on Windows it blocks save() from moving a new snapshot over the file
+            data = ByteBuffer.allocate((int) size);
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // keep reading
+            }
+            data.flip();
+        }
+
+        int checksumPos = data.limit() - 4;
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate().limit(checksumPos));
+        if ((int) crc.getValue() != data.getInt(checksumPos)) {
+            throw new IOException("Binary snapshot checksum mismatch");
+        }
+
+        if (data.getInt() != MAGIC) {
+            throw new IOException("Not a binary ignore list snapshot");
+        }
+        int version = data.getInt();
+        long generation = data.getLong();
+        if (version == 3) {
+            readVersion3(data, checksumPos, ignoredPlayers, timedIgnores);
+            return new Header(version, generation);
+        }
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary snapshot version " + version);
+        }
+        int count = data.getInt();
+        // Every entry takes at least a length byte and an expiry
+        if (count < 0 || (long) count * 9 > checksumPos - HEADER_SIZE) {
+            throw new IOException("Corrupt binary snapshot header");
+        }
+
+        data.limit(checksumPos);
+        byte[] scratch = new byte[MAX_NAME_BYTES];
+        for (int i = 0; i < count; i++) {
+            String name = readName(data, scratch);
+            ignoredPlayers.add(name);
+            long expiry = data.getLong();
+            if (expiry != PERMANENT) {
+                timedIgnores.put(name, expiry);
+            }
+        }
+        return new Header(version, generation);
+    }
+
+    /**
+     * Reads the body of a version 3 snapshot: timed and permanent counts, the packed expiries of the
+     * timed names, then the timed names followed by the permanent ones.
+     */
+    private static void readVersion3(ByteBuffer data, int checksumPos, Collection<String> ignoredPlayers,
+                                     Map<String, Long> timedIgnores) throws IOException {
+        int timedCount = data.getInt();
+        int permanentCount = data.getInt();
+        int expiryPos = data.position();
+        if (timedCount < 0 || permanentCount < 0 || (long) timedCount * 8 > checksumPos - expiryPos) {
+            throw new IOException("Corrupt binary snapshot header");
+        }
+
+        data.position(expiryPos + timedCount * 8);
+        data.limit(checksumPos);
+        byte[] scratch = new byte[MAX_NAME_BYTES];
+        for (int i = 0; i < timedCount; i++) {
+            String name = readName(data, scratch);
+            ignoredPlayers.add(name);
+            timedIgnores.put(name, data.getLong(expiryPos + i * 8));
+        }
+        for (int i = 0; i < permanentCount; i++) {
+            ignoredPlayers.add(readName(data, scratch));
+        }
+    }
+
+    private static String readName(ByteBuffer data, byte[] scratch) {
+        int length = data.get() & 0xFF;
+        data.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
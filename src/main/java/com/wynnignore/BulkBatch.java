@@ -0,0 +1,96 @@
+package com.wynnignore;
+
+import java.util.List;
+
+/**
+ * Progress of one bulk operation (such as {@code /unignore all}) tracked as a unit: how many of its
+ * commands were confirmed, failed or cancelled, and an ETA for the rest from the measured throughput.
+ * Counts are updated on the client thread by confirmations, timeouts and cancellation, and read there by
+ * the progress task.
+ */
+public class BulkBatch {
+    // Completions needed before the measured rate is trusted over the configured delay
+    private static final int MIN_SAMPLES = 3;
+
+    private final List<String> keys;
+    private final long startNanos;
+    private int completed = 0;
+    private int failed = 0;
+    private int cancelled = 0;
+    private boolean stopped = false;
+
+    /**
+     * Creates a batch over the given queue keys (lowercased player names), started at the given scheduler time.
+     */
+    public BulkBatch(List<String> keys, long startNanos) {
+        this.keys = keys;
+        this.startNanos = startNanos;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public int getTotal() {
+        return keys.size();
+    }
+
+    public synchronized int getCompleted() {
+        return completed;
+    }
+
+    public synchronized int getFailed() {
+        return failed;
+    }
+
+    public synchronized void onCompleted() {
+        completed++;
+    }
+
+    public synchronized void onFailed() {
+        failed++;
+    }
+
+    /**
+     * Records commands that were removed from the queue before being sent.
+     */
+    public synchronized void onCancelled(int count) {
+        cancelled += count;
+    }
+
+    /**
+     * Marks the batch as cancelled by the user; its unsent commands must not be queued again.
+     */
+    public synchronized void stop() {
+        stopped = true;
+    }
+
+    public synchronized boolean isStopped() {
+        return stopped;
+    }
+
+    public synchronized int getRemaining() {
+        return Math.max(0, keys.size() - completed - failed - cancelled);
+    }
+
+    public synchronized boolean isDone() {
+        return getRemaining() == 0;
+    }
+
+    public long getElapsedMs(long nowNanos) {
+        return (nowNanos - startNanos) / 1_000_000L;
+    }
+
+    /**
+     * Estimates the time left from the average time per finished command so far, or from
+     * fallbackPerCommandMs until a few commands have finished.
+     */
+    public synchronized long getEtaMs(long nowNanos, long fallbackPerCommandMs) {
+        int remaining = getRemaining();
+        int finished = completed + failed;
+        if (finished < MIN_SAMPLES) {
+            return remaining * fallbackPerCommandMs;
+        }
+        return getElapsedMs(nowNanos) * remaining / finished;
+    }
+}
@@ -0,0 +1,174 @@
+package com.wynnignore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records incoming chat messages to gzip-compressed files, so the confirmation parser can be tested
+ * and measured offline against real traffic. Opt-in through the config.
+ *
+ * The client thread only appends to a queue; compression and disk writes happen on a background
+ * I/O thread at most once per second. Each connection gets its own file. File layout: {@code MAGIC},
+ * version, then per message its wall-clock time in milliseconds, UTF-8 length and UTF-8 bytes.
+ * The gzip stream is sync-flushed after every batch, so a crash loses at most the last second.
+ */
+public class ChatRecorder {
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x57494352; // "WICR"
+    private static final long FLUSH_DELAY_MS = 1000;
+    private static final int MAX_MESSAGE_BYTES = 1 << 20;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    // Queued in place of a message to close the current file
+    private static final Entry END_OF_SESSION = new Entry(0, null);
+
+    /**
+     * Receives the messages of a recording in order.
+     */
+    public interface Visitor {
+        void onMessage(long timeMillis, String message);
+    }
+
+    private record Entry(long time, String message) {
+    }
+
+    private final Path directory;
+    private final ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final WriteBehindSaver saver;
+    // Only used on the saver's I/O thread
+    private DataOutputStream out;
+    private Path file;
+
+    public ChatRecorder(Path directory) {
+        this.directory = directory;
+        this.saver = new WriteBehindSaver("WynnIgnore Chat Recorder", FLUSH_DELAY_MS, this::writePending);
+    }
+
+    /**
+     * Queues a received message for recording. Safe to call from any thread.
+     */
+    public void record(String message) {
+        pending.add(new Entry(System.currentTimeMillis(), message));
+        saver.markDirty();
+    }
+
+    /**
+     * Closes the current recording, if any; the next message starts a new file.
+     */
+    public void endSession() {
+        pending.add(END_OF_SESSION);
+        saver.markDirty();
+    }
+
+    /**
+     * Writes everything queued, closes the file and stops the I/O thread.
+     */
+    public void shutdown() {
+        pending.add(END_OF_SESSION);
+        saver.markDirty();
+        saver.shutdown();
+    }
+
+    private void writePending() {
+        try {
+            Entry entry;
+            while ((entry = pending.poll()) != null) {
+                if (entry == END_OF_SESSION) {
+                    close();
+                    continue;
+                }
+                if (out == null) {
+                    open();
+                }
+                byte[] bytes = entry.message().getBytes(StandardCharsets.UTF_8);
+                out.writeLong(entry.time());
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Give up on this file; recording resumes in a new one
+            WynnIgnoreMod.LOGGER.error("Failed to write chat recording {}", file, e);
+            closeQuietly();
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        String name = "chat-" + LocalDateTime.now().format(FILE_TIME);
+        file = directory.resolve(name + ".rec.gz");
+        // Two sessions can start within the same second
+        for (int i = 2; Files.exists(file); i++) {
+            file = directory.resolve(name + "-" + i + ".rec.gz");
+        }
+        out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file), 8192, true)));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        WynnIgnoreMod.LOGGER.info("Recording chat to {}", file);
+    }
+
+    private void close() throws IOException {
+        if (out != null) {
+            DataOutputStream closing = out;
+            out = null;
+            closing.close();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            // Already failed; nothing more to save
+        }
+    }
+
+    /**
+     * Reads a recording and passes every message to the visitor. A file cut off by a crash is read
+     * up to its last complete message. Returns the number of messages read.
+     */
+    public static int read(Path file, Visitor visitor) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file)), 64 * 1024))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a chat recording: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported chat recording version " + version + ": " + file);
+            }
+
+            int count = 0;
+            while (true) {
+                long time;
+                byte[] bytes;
+                try {
+                    time = in.readLong();
+                    int length = in.readInt();
+                    if (length < 0 || length > MAX_MESSAGE_BYTES) {
+                        throw new IOException("Corrupt chat recording at message " + count + ": " + file);
+                    }
+                    bytes = new byte[length];
+                    in.readFully(bytes);
+                } catch (EOFException e) {
+                    return count;
+                }
+                visitor.onMessage(time, new String(bytes, StandardCharsets.UTF_8));
+                count++;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.wynnignore;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+
+/**
+ * The parts of the game client that the command queue talks to: whether a player is connected,
+ * sending chat commands to the server, and showing messages to the player.
+ * Swapped out to drive the queue without a running client.
+ */
+public interface ClientBridge {
+    boolean isConnected();
+
+    /**
+     * Sends a chat command (without the leading slash) to the server.
+     */
+    void sendCommand(String command);
+
+    /**
+     * Shows a message in chat, or above the hotbar when overlay is true.
+     */
+    void showMessage(Text message, boolean overlay);
+
+    /**
+     * The bridge to the running Minecraft client.
+     */
+    ClientBridge MINECRAFT = new ClientBridge() {
+        @Override
+        public boolean isConnected() {
+            MinecraftClient client = MinecraftClient.getInstance();
+            return client != null && client.player != null;
+        }
+
+        @Override
+        public void sendCommand(String command) {
+            MinecraftClient client = MinecraftClient.getInstance();
+            if (client != null && client.player != null) {
+                client.player.networkHandler.sendChatCommand(command);
+            }
+        }
+
+        @Override
+        public void showMessage(Text message, boolean overlay) {
+            MinecraftClient client = MinecraftClient.getInstance();
+            if (client != null && client.player != null) {
+                client.player.sendMessage(message, overlay);
+            }
+        }
+    };
+}
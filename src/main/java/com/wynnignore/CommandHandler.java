@@ -5,66 +5,112 @@ import com.mojang.brigadier.suggestion.SuggestionProvider;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.AbstractClientPlayerEntity;
 import net.minecraft.command.CommandSource;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.decoration.DisplayEntity;
+import net.minecraft.text.ClickEvent;
+import net.minecraft.text.HoverEvent;
+import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
+import net.minecraft.util.math.Box;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CommandHandler {
 
     // Maximum timed ignore duration: 1 week in minutes
     public static final int MAX_TIMED_IGNORE_MINUTES = 7 * 24 * 60; // 10080 minutes
 
-    // Timeout for waiting for server confirmation (10 seconds)
+    // Upper bound on the wait for a server confirmation (10 seconds)
     private static final long CONFIRMATION_TIMEOUT_MS = 10000;
 
-    private static long getCommandDelayMs() {
-        return ModConfig.getInstance().getCommandDelayMs();
+    // Adapts the inter-command delay and confirmation timeout to measured round-trip times
+    private static final RateController rateController = new RateController();
+
+    static long getCommandDelayMs() {
+        return rateController.getDelayMs();
     }
 
     private static int getMaxRetries() {
         return ModConfig.getInstance().getCommandMaxRetries();
     }
 
-    private static final Queue<QueuedCommand> commandQueue = new LinkedList<>();
+    private static int getWindowSize() {
+        return ModConfig.getInstance().getCommandWindowSize();
+    }
+
+    private static final CommandQueue<QueuedCommand> commandQueue = new CommandQueue<>(command -> command.playerName.toLowerCase());
     private static final Object QUEUE_LOCK = new Object();
 
-    private static volatile boolean waitingForConfirmation = false;
-    private static volatile String pendingPlayer = null;
-    private static volatile boolean pendingIsAdd = false;
-    private static volatile int pendingDurationMinutes = 0;
-    private static volatile boolean pendingIsTimedUnignore = false;
+    // Commands sent to the server and still waiting for their confirmation (guarded by QUEUE_LOCK)
+    private static final List<InFlightCommand> inFlight = new ArrayList<>();
+    // Mirrors inFlight.size() so chat messages can be rejected without taking the lock
+    private static volatile int inFlightCount = 0;
     private static volatile boolean sendingQueuedCommand = false;
-    private static volatile long confirmationStartTime = 0;
-    private static volatile boolean pendingIsWarCommand = false;
-    private static volatile long nextCommandReadyTime = 0;
-    private static volatile int retryCount = 0;
+    private static volatile ClientBridge bridge = ClientBridge.MINECRAFT;
+    // Scheduler time of the last send (guarded by QUEUE_LOCK)
+    private static long lastCommandSentTime = 0;
+    private static boolean commandSent = false;
+    // Timers run from the client tick instead of polling every tick
+    private static final TickScheduler scheduler = WynnIgnoreMod.getScheduler();
+    private static final int SEND_TASK = scheduler.register(CommandHandler::processNextCommand);
+    private static final int TIMEOUT_TASK = scheduler.register(CommandHandler::checkConfirmationTimeout);
+    private static final int EXPIRY_TASK = scheduler.register(CommandHandler::checkTimedIgnoreExpiry);
+    private static final int PROGRESS_TASK = scheduler.register(CommandHandler::showBulkProgress);
+    // Action bar progress for bulk operations is refreshed at most this often
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+    // Names per /ignore list page, and per line within it
+    private static final int LIST_PAGE_SIZE = 20;
+    private static final int LIST_NAMES_PER_LINE = 5;
+    // Names offered per /unignore completion; the rest are reached by typing more of the name
+    private static final int MAX_SUGGESTIONS = 50;
+    // Completions are looked up here instead of on the client thread
+    private static final ExecutorService SUGGESTION_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "WynnIgnore-Suggest");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Server commands that never had to be sent because queued work was merged or cancelled out
+    private static volatile long avoidedCommands = 0;
+    // The running /unignore all, if any; only one bulk operation runs at a time
+    private static volatile BulkBatch activeBatch = null;
+
+    // Outcome of offering a command to the queue
+    private enum EnqueueResult {
+        // Added as new work
+        QUEUED,
+        // Folded into an identical operation already queued for the player
+        MERGED,
+        // The same operation is already waiting for its confirmation
+        IN_FLIGHT,
+        // Cancelled an unsent add of a player who is not yet ignored together with this remove
+        CANCELLED,
+        // Cancelled an unsent remove; the player stays ignored and only the local state changes
+        KEPT
+    }
 
-    // Shorter timeout for war commands (time-sensitive)
+    // Shorter timeout ceiling for war commands (time-sensitive)
     private static final long WAR_CONFIRMATION_TIMEOUT_MS = 1000;
 
-    // Wynncraft's custom font encodes each glyph as 3 Java chars:
-    // [BMP PUA char (U+E000-U+F8FF)] [U+DAFF] [U+DFFF]
-    // The surrogate pair U+DAFF U+DFFF is a constant marker after every glyph.
-    private static final char WYNN_FONT_SURR_HIGH = '\uDAFF';
-    private static final char WYNN_FONT_SURR_LOW = '\uDFFF';
-
-    // The BMP PUA chars (glyph selectors) that spell "DISGUISED" in Wynncraft's custom font.
-    // Each of these is followed by the DAFF DFFF marker in the actual text, but we only
-    // compare the varying BMP chars to avoid surrogate encoding issues.
-    private static final char[] DISGUISED_GLYPHS = {
+    // Glyph selectors of the DISGUISED tag shown after a disguised player's name in Wynncraft's custom font:
+    // the tag's opening cap U+E060, which draws no letter, then the letters
+    static final char[] DISGUISED_GLYPHS = {
         '\uE060', '\uE033', '\uE038', '\uE042', '\uE036',
         '\uE044', '\uE038', '\uE042', '\uE034', '\uE033'
     };
+    private static final int DISGUISED_TAG = GlyphTagScanner.register(DISGUISED_GLYPHS);
 
     private static class QueuedCommand {
         final String playerName;
@@ -72,6 +118,10 @@ public class CommandHandler {
         final int durationMinutes; // -1 = permanent, 0 = use default, >0 = specific duration
         final boolean isTimedUnignore;
         final boolean isWarCommand;
+        final CommandQueue.Lane lane;
+        final int retryCount;
+        // The bulk operation this command belongs to, or null
+        final BulkBatch batch;
 
         QueuedCommand(String playerName, boolean isAdd) {
             this(playerName, isAdd, -1, false, false);
@@ -82,11 +132,64 @@ public class CommandHandler {
         }
 
         QueuedCommand(String playerName, boolean isAdd, int durationMinutes, boolean isTimedUnignore, boolean isWarCommand) {
+            this(playerName, isAdd, durationMinutes, isTimedUnignore, isWarCommand,
+                isWarCommand ? CommandQueue.Lane.WAR : isTimedUnignore ? CommandQueue.Lane.BULK : CommandQueue.Lane.USER, 0, null);
+        }
+
+        QueuedCommand(String playerName, boolean isAdd, int durationMinutes, boolean isTimedUnignore, boolean isWarCommand,
+                      CommandQueue.Lane lane, int retryCount, BulkBatch batch) {
             this.playerName = playerName;
             this.isAdd = isAdd;
             this.durationMinutes = durationMinutes;
             this.isTimedUnignore = isTimedUnignore;
             this.isWarCommand = isWarCommand;
+            this.lane = lane;
+            this.retryCount = retryCount;
+            this.batch = batch;
+        }
+
+        QueuedCommand retry() {
+            return new QueuedCommand(playerName, isAdd, durationMinutes, isTimedUnignore, isWarCommand, lane, retryCount + 1, batch);
+        }
+
+        /**
+         * Returns this command in the given lane, keeping the other command's batch if this one has none.
+         */
+        QueuedCommand mergedInto(CommandQueue.Lane newLane, QueuedCommand other) {
+            return new QueuedCommand(playerName, isAdd, durationMinutes, isTimedUnignore, isWarCommand, newLane, retryCount,
+                batch != null ? batch : other.batch);
+        }
+    }
+
+    /**
+     * A command that has been sent and is waiting for the server's confirmation.
+     */
+    private static class InFlightCommand {
+        final QueuedCommand command;
+        final ConfirmationMatcher matcher;
+        // Scheduler time at send
+        final long sentTime;
+        final long timeoutMs;
+
+        InFlightCommand(QueuedCommand command, long sentTime) {
+            this.command = command;
+            this.matcher = new ConfirmationMatcher(command.playerName);
+            this.sentTime = sentTime;
+            this.timeoutMs = rateController.getTimeoutMs(command.isWarCommand ? WAR_CONFIRMATION_TIMEOUT_MS : CONFIRMATION_TIMEOUT_MS);
+        }
+
+        long deadline() {
+            return sentTime + timeoutMs * 1_000_000L;
+        }
+
+        /**
+         * Returns true if the confirmation phrases found in a message answer this command.
+         */
+        boolean acceptsPhrases(int found) {
+            if (command.isAdd) {
+                return (found & ConfirmationMatcher.ADDED) != 0;
+            }
+            return (found & (ConfirmationMatcher.REMOVED | ConfirmationMatcher.NOT_IGNORED)) != 0;
         }
     }
 
@@ -95,12 +198,20 @@ public class CommandHandler {
         if (manager == null) {
             return builder.buildFuture();
         }
-        Set<String> ignoredPlayers = manager.getIgnoredPlayers();
-
-        List<String> suggestions = new ArrayList<>(ignoredPlayers);
-        suggestions.add("all");
-
-        return CommandSource.suggestMatching(suggestions, builder);
+        String keyword = activeBatch != null ? "cancel" : "all";
+        // The chat screen shows suggestions on whichever thread completes the future, so hand the result back
+        return CompletableFuture.supplyAsync(() -> {
+            String prefix = builder.getRemainingLowerCase();
+            if (CommandSource.shouldSuggest(prefix, keyword)) {
+                builder.suggest(keyword);
+            }
+            String[] names = new String[MAX_SUGGESTIONS];
+            int count = manager.getNameIndex().suggest(prefix, names);
+            for (int i = 0; i < count; i++) {
+                builder.suggest(names[i]);
+            }
+            return builder.build();
+        }, SUGGESTION_EXECUTOR).thenApplyAsync(suggestions -> suggestions, MinecraftClient.getInstance());
     };
 
     public static void register() {
@@ -115,7 +226,7 @@ public class CommandHandler {
                     })
                 )
                 .executes(context -> {
-                    sendMessage(Text.literal("Usage: /unignore <player|all>").formatted(Formatting.RED));
+                    sendMessage(Text.literal("Usage: /unignore <player|all|cancel>").formatted(Formatting.RED));
                     return 0;
                 })
             );
@@ -127,38 +238,70 @@ public class CommandHandler {
                 })
             );
 
+            // /wynnignore stats [dump]
+            dispatcher.register(ClientCommandManager.literal("wynnignore")
+                .then(ClientCommandManager.literal("stats")
+                    .then(ClientCommandManager.literal("dump")
+                        .executes(context -> handleStatsDump())
+                    )
+                    .executes(context -> handleStats())
+                )
+            );
+
         });
     }
 
-    private static int handleUnignore(String target) {
-        MinecraftClient client = MinecraftClient.getInstance();
+    static int handleUnignore(String target) {
         IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
 
-        if (client.player == null || manager == null) {
+        if (!bridge.isConnected() || manager == null) {
             return 0;
         }
 
+        // Only a keyword while a batch runs, so a player named "cancel" can still be unignored
+        if (activeBatch != null && target.equalsIgnoreCase("cancel")) {
+            return cancelBulkUnignore();
+        }
+
         if (target.equalsIgnoreCase("all")) {
-            Set<String> players = manager.getIgnoredPlayers();
+            if (activeBatch != null) {
+                sendMessage(Text.literal("[WynnIgnore] An unignore of all players is already running. Use /unignore cancel to stop it.")
+                    .formatted(Formatting.YELLOW));
+                return 0;
+            }
+            // Names in the snapshot are already lowercased, so it doubles as the batch's key list
+            List<String> players = manager.getSnapshot().getSorted();
             if (players.isEmpty()) {
                 sendMessage(Text.literal("[WynnIgnore] No players in ignore list.").formatted(Formatting.YELLOW));
                 return 1;
             }
 
             int count = players.size();
-            List<String> toUnignore = new ArrayList<>(players);
+            BulkBatch batch = new BulkBatch(players, scheduler.now());
+            List<QueuedCommand> commands = new ArrayList<>(count);
+            for (String player : players) {
+                commands.add(new QueuedCommand(player, false, 0, false, false, CommandQueue.Lane.BULK, 0, batch));
+            }
 
-            synchronized (QUEUE_LOCK) {
-                for (String player : toUnignore) {
-                    commandQueue.add(new QueuedCommand(player, false, 0, false));
+            sendMessage(Text.literal("[WynnIgnore] Unignoring " + count + " players... (/unignore cancel to stop)").formatted(Formatting.GREEN));
+            activeBatch = batch;
+            EnqueueResult[] results = new EnqueueResult[count];
+            int avoided = submit(commands, results);
+            for (EnqueueResult result : results) {
+                // Folded into a removal that is already in flight or cancelled an unsent ignore: nothing left to send
+                if (result == EnqueueResult.IN_FLIGHT || result == EnqueueResult.CANCELLED) {
+                    batch.onCompleted();
                 }
             }
-
-            sendMessage(Text.literal("[WynnIgnore] Unignoring " + count + " players...").formatted(Formatting.GREEN));
-            processNextCommand();
+            if (avoided > 0) {
+                sendMessage(Text.literal("[WynnIgnore] " + avoided + " commands were already queued and will not be sent twice.")
+                    .formatted(Formatting.GRAY));
+            }
+            scheduler.scheduleIn(PROGRESS_TASK, PROGRESS_INTERVAL_MS);
             return 1;
         } else {
-            if (!manager.isIgnored(target)) {
+            boolean addPending = isAddPending(target);
+            if (!manager.isIgnored(target) && !addPending) {
                 sendMessage(Text.literal("[WynnIgnore] ")
                     .formatted(Formatting.GRAY)
                     .append(Text.literal(target).formatted(Formatting.YELLOW))
@@ -167,14 +310,88 @@ public class CommandHandler {
             }
 
             // Use queue for consistency with confirmation system
-            synchronized (QUEUE_LOCK) {
-                commandQueue.add(new QueuedCommand(target, false, 0, false));
+            EnqueueResult result = submit(new QueuedCommand(target, false, 0, false));
+            if (result == EnqueueResult.CANCELLED) {
+                sendMessage(Text.literal("[WynnIgnore] Cancelled the queued ignore of ")
+                    .formatted(Formatting.GREEN)
+                    .append(Text.literal(target).formatted(Formatting.YELLOW))
+                    .append(Text.literal(".").formatted(Formatting.GREEN)));
             }
-            processNextCommand();
             return 1;
         }
     }
 
+    /**
+     * Drops the unsent commands of the running unignore of all players. Commands already sent still finish.
+     */
+    private static int cancelBulkUnignore() {
+        BulkBatch batch = activeBatch;
+        if (batch == null) {
+            return 0;
+        }
+        int dropped = 0;
+        synchronized (QUEUE_LOCK) {
+            batch.stop();
+            for (String key : batch.getKeys()) {
+                QueuedCommand queued = commandQueue.get(key);
+                if (queued != null && queued.batch == batch) {
+                    commandQueue.cancel(key);
+                    dropped++;
+                }
+            }
+        }
+        batch.onCancelled(dropped);
+        sendMessage(Text.literal("[WynnIgnore] Cancelled unignoring " + dropped + " players. "
+            + batch.getCompleted() + " were already unignored.").formatted(Formatting.YELLOW));
+        showBulkProgress();
+        return 1;
+    }
+
+    /**
+     * Shows the running bulk operation's progress on the action bar, or its summary once it has finished.
+     * Runs from the scheduler once per second while a batch is active.
+     */
+    private static void showBulkProgress() {
+        BulkBatch batch = activeBatch;
+        if (batch == null) {
+            return;
+        }
+        long now = scheduler.now();
+        int done = batch.getCompleted() + batch.getFailed();
+
+        if (batch.isDone()) {
+            synchronized (QUEUE_LOCK) {
+                if (activeBatch != batch) {
+                    return;
+                }
+                activeBatch = null;
+                scheduler.cancel(PROGRESS_TASK);
+            }
+            String failed = batch.getFailed() > 0 ? " (" + batch.getFailed() + " failed)" : "";
+            String verb = batch.isStopped() ? "Stopped after unignoring " : "Unignored ";
+            sendMessage(Text.literal("[WynnIgnore] " + verb + batch.getCompleted() + " of " + batch.getTotal() + " players in "
+                + formatEta(batch.getElapsedMs(now)) + failed + ".").formatted(Formatting.GREEN));
+            return;
+        }
+
+        MutableText progress = Text.literal("[WynnIgnore] Unignoring ").formatted(Formatting.GREEN)
+            .append(Text.literal(done + "/" + batch.getTotal()).formatted(Formatting.YELLOW));
+        if (batch.getFailed() > 0) {
+            progress.append(Text.literal(" - " + batch.getFailed() + " failed").formatted(Formatting.RED));
+        }
+        progress.append(Text.literal(" - ETA " + formatEta(batch.getEtaMs(now, getCommandDelayMs()))).formatted(Formatting.GRAY));
+        bridge.showMessage(progress, true);
+        scheduler.scheduleIn(PROGRESS_TASK, PROGRESS_INTERVAL_MS);
+    }
+
+    private static String formatEta(long ms) {
+        long seconds = (ms + 999) / 1000;
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        return seconds / 60 + "m " + String.format("%02d", seconds % 60) + "s";
+    }
+
     private static int handleWarIgnore() {
         MinecraftClient client = MinecraftClient.getInstance();
         IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
@@ -183,26 +400,22 @@ public class CommandHandler {
             return 0;
         }
 
+        IgnoreEvents.WarScan event = IgnoreEvents.isEnabled() ? new IgnoreEvents.WarScan() : null;
+        if (event != null) {
+            event.begin();
+        }
+
         double maxDistance = ModConfig.getInstance().getWarIgnoreDistance();
         List<AbstractClientPlayerEntity> nearbyPlayers = new ArrayList<>();
-
-        for (AbstractClientPlayerEntity player : client.world.getPlayers()) {
-            if (player == client.player) {
-                continue;
-            }
-
-            double distance = client.player.distanceTo(player);
-            if (distance <= maxDistance) {
-                nearbyPlayers.add(player);
-            }
-        }
+        List<String> disguisedNames = new ArrayList<>();
+        int scanned = scanNearby(maxDistance, nearbyPlayers, disguisedNames);
 
         List<String> toIgnore = new ArrayList<>();
         Set<String> toIgnoreLower = new java.util.HashSet<>();
         for (AbstractClientPlayerEntity player : nearbyPlayers) {
             String name = player.getName().getString();
 
-            if (manager.isIgnored(name)) {
+            if (manager.isIgnored(name) || isAddPending(name)) {
                 continue;
             }
 
@@ -212,17 +425,24 @@ public class CommandHandler {
 
         // Also detect disguised players via text display entities
         String selfName = client.player.getName().getString().toLowerCase();
-        List<String> disguisedNames = findDisguisedPlayers(maxDistance);
         int disguisedCount = 0;
         for (String name : disguisedNames) {
             if (name.toLowerCase().equals(selfName)) continue;
-            if (!manager.isIgnored(name) && !toIgnoreLower.contains(name.toLowerCase())) {
+            if (!manager.isIgnored(name) && !isAddPending(name) && !toIgnoreLower.contains(name.toLowerCase())) {
                 toIgnore.add(name);
                 toIgnoreLower.add(name.toLowerCase());
                 disguisedCount++;
             }
         }
 
+        if (event != null) {
+            event.entitiesScanned = scanned;
+            event.playersFound = nearbyPlayers.size();
+            event.disguisedFound = disguisedNames.size();
+            event.queued = toIgnore.size();
+            event.commit();
+        }
+
         if (toIgnore.isEmpty()) {
             if (nearbyPlayers.isEmpty() && disguisedNames.isEmpty()) {
                 sendMessage(Text.literal("[WynnIgnore] No players found within " + (int) maxDistance + " blocks.").formatted(Formatting.YELLOW));
@@ -232,33 +452,182 @@ public class CommandHandler {
             return 1;
         }
 
+        String suffix = disguisedCount > 0 ? " (" + disguisedCount + " disguised)" : "";
+        queueWarIgnores(toIgnore, suffix);
+        return 1;
+    }
+
+    /**
+     * Queues war ignores for the given players ahead of all other work.
+     */
+    static void queueWarIgnores(List<String> players, String suffix) {
         int minutes = ModConfig.getInstance().getWarIgnoreDurationMinutes();
 
-        synchronized (QUEUE_LOCK) {
-            for (String name : toIgnore) {
-                commandQueue.add(new QueuedCommand(name, true, minutes, false, true));
-            }
+        List<QueuedCommand> commands = new ArrayList<>(players.size());
+        for (String name : players) {
+            commands.add(new QueuedCommand(name, true, minutes, false, true));
         }
 
-        String suffix = disguisedCount > 0 ? " (" + disguisedCount + " disguised)" : "";
-        sendMessage(Text.literal("[WynnIgnore] War-ignoring " + toIgnore.size() + " players" + suffix + " for " + minutes + " min: ")
+        sendMessage(Text.literal("[WynnIgnore] War-ignoring " + players.size() + " players" + suffix + " for " + minutes + " min: ")
             .formatted(Formatting.GREEN)
-            .append(Text.literal(String.join(", ", toIgnore)).formatted(Formatting.YELLOW)));
-        processNextCommand();
+            .append(Text.literal(String.join(", ", players)).formatted(Formatting.YELLOW)));
+        submit(commands);
+    }
+
+    private static int handleStats() {
+        StringBuilder queue = new StringBuilder("Queue:");
+        for (CommandQueue.Lane lane : CommandQueue.Lane.values()) {
+            queue.append(' ').append(lane.name().toLowerCase()).append(' ').append(getQueueDepth(lane)).append(',');
+        }
+        queue.append(" in flight ").append(getInFlightCount()).append(", delay ").append(getCommandDelayMs()).append(" ms");
+
+        sendMessage(Text.literal("[WynnIgnore] Session stats:").formatted(Formatting.GOLD));
+        sendMessage(Text.literal("  " + queue).formatted(Formatting.GRAY));
+        sendMessage(Text.literal("  Commands: " + Metrics.COMMANDS_SENT.sum() + " sent ("
+            + Metrics.SENT_LAST_MINUTE.get(scheduler.now()) + " in the last minute), "
+            + Metrics.CONFIRMATIONS.sum() + " confirmed, " + Metrics.RETRIES.sum() + " retried, "
+            + Metrics.GIVE_UPS.sum() + " given up, " + avoidedCommands + " avoided").formatted(Formatting.GRAY));
+        sendMessage(Text.literal("  Confirmation RTT: " + describe(Metrics.CONFIRMATION_RTT)).formatted(Formatting.GRAY));
+        sendMessage(Text.literal("  Chat scan: " + describe(Metrics.CHAT_SCAN)).formatted(Formatting.GRAY));
+        sendMessage(Text.literal("  Expiry check: " + describe(Metrics.EXPIRY_CHECK)).formatted(Formatting.GRAY));
+        sendMessage(Text.literal("  Snapshot write: " + describe(Metrics.SNAPSHOT_WRITE)).formatted(Formatting.GRAY));
+        sendMessage(Text.literal("  Journal append: " + describe(Metrics.JOURNAL_APPEND)).formatted(Formatting.GRAY));
+        sendMessage(Text.literal("  Load: " + describe(Metrics.LOAD) + "; " + Metrics.BYTES_READ.sum() + " bytes read, "
+            + Metrics.BYTES_WRITTEN.sum() + " written").formatted(Formatting.GRAY));
+        return 1;
+    }
+
+    private static String describe(Histogram histogram) {
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        if (snapshot.count() == 0) {
+            return "none yet";
+        }
+        String unit = " " + histogram.getUnit();
+        return snapshot.count() + "x, p50 " + snapshot.percentile(0.5) + unit
+            + ", p90 " + snapshot.percentile(0.9) + unit
+            + ", p99 " + snapshot.percentile(0.99) + unit
+            + ", max " + snapshot.max() + unit;
+    }
 
+    private static int handleStatsDump() {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve("wynnignore_stats.json");
+        try {
+            Metrics.dump(path);
+        } catch (IOException e) {
+            WynnIgnoreMod.LOGGER.error("Failed to write stats", e);
+            sendMessage(Text.literal("[WynnIgnore] Failed to write stats: " + e.getMessage()).formatted(Formatting.RED));
+            return 0;
+        }
+        sendMessage(Text.literal("[WynnIgnore] Stats written to " + path).formatted(Formatting.GREEN));
         return 1;
     }
 
+    /**
+     * Shows one page of the tracked list for {@code /ignore list [page] [name|expiry|newest] [all|timed|permanent]},
+     * with the arguments in any order. Only the names on the page are formatted, and the ordered views are
+     * kept by the snapshot, so showing a page costs the same however long the list is.
+     */
+    public static void handleIgnoreList(String[] args) {
+        IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
+        if (manager == null) {
+            return;
+        }
+
+        int page = 1;
+        IgnoreListSnapshot.Order order = IgnoreListSnapshot.Order.NAME;
+        IgnoreListSnapshot.Filter filter = IgnoreListSnapshot.Filter.ALL;
+        for (String arg : args) {
+            IgnoreListSnapshot.Order parsedOrder = parseEnum(IgnoreListSnapshot.Order.class, arg);
+            IgnoreListSnapshot.Filter parsedFilter = parseEnum(IgnoreListSnapshot.Filter.class, arg);
+            if (parsedOrder != null) {
+                order = parsedOrder;
+            } else if (parsedFilter != null) {
+                filter = parsedFilter;
+            } else {
+                try {
+                    page = Integer.parseInt(arg);
+                } catch (NumberFormatException e) {
+                    sendMessage(Text.literal("Usage: /ignore list [page] [name|expiry|newest] [all|timed|permanent]")
+                        .formatted(Formatting.RED));
+                    return;
+                }
+            }
+        }
+
+        IgnoreListSnapshot snapshot = manager.getSnapshot();
+        List<String> players = snapshot.getView(order, filter);
+        if (players.isEmpty()) {
+            String what = filter == IgnoreListSnapshot.Filter.ALL ? "" : " " + filter.name().toLowerCase();
+            sendMessage(Text.literal("[WynnIgnore] Your tracked ignore list has no" + what + " players.").formatted(Formatting.YELLOW));
+            return;
+        }
+
+        int pages = (players.size() + LIST_PAGE_SIZE - 1) / LIST_PAGE_SIZE;
+        page = Math.max(1, Math.min(page, pages));
+        int start = (page - 1) * LIST_PAGE_SIZE;
+        int end = Math.min(start + LIST_PAGE_SIZE, players.size());
+
+        String what = filter == IgnoreListSnapshot.Filter.ALL ? "" : filter.name().toLowerCase() + " ";
+        sendMessage(Text.literal("[WynnIgnore] Tracked " + what + "ignored players (" + players.size() + ", by "
+            + order.name().toLowerCase() + "):").formatted(Formatting.GOLD));
+
+        // The whole page goes out as one message, a few names to a line
+        StringBuilder sb = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            String player = players.get(i);
+            if (i > start) {
+                sb.append((i - start) % LIST_NAMES_PER_LINE == 0 ? "\n  " : ", ");
+            }
+            sb.append(player);
+            // Show remaining time for timed ignores
+            long remaining = snapshot.getRemainingMinutes(player);
+            if (remaining >= 0) {
+                sb.append(" (").append(remaining).append("m)");
+            }
+        }
+        sendMessage(Text.literal("  " + sb).formatted(Formatting.GRAY));
+
+        if (pages > 1) {
+            MutableText navigation = Text.literal("  ");
+            if (page > 1) {
+                navigation.append(listPageLink("[< Prev]", page - 1, order, filter)).append(" ");
+            }
+            navigation.append(Text.literal("Page " + page + "/" + pages).formatted(Formatting.GRAY));
+            if (page < pages) {
+                navigation.append(" ").append(listPageLink("[Next >]", page + 1, order, filter));
+            }
+            sendMessage(navigation);
+        }
+    }
+
+    private static Text listPageLink(String label, int page, IgnoreListSnapshot.Order order, IgnoreListSnapshot.Filter filter) {
+        String command = "/ignore list " + page + " " + order.name().toLowerCase() + " " + filter.name().toLowerCase();
+        return Text.literal(label).formatted(Formatting.AQUA).styled(style -> style
+            .withClickEvent(new ClickEvent.RunCommand(command))
+            .withHoverEvent(new HoverEvent.ShowText(Text.literal(command))));
+    }
+
+    /**
+     * Matches an argument against an enum constant's name, ignoring case, or returns null.
+     */
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String arg) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(arg)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
     /**
      * Queue timed unignores (called by IgnoreListManager when timed ignores expire).
      */
     public static void queueTimedUnignores(List<String> players) {
-        synchronized (QUEUE_LOCK) {
-            for (String player : players) {
-                commandQueue.add(new QueuedCommand(player, false, 0, true));
-            }
+        List<QueuedCommand> commands = new ArrayList<>(players.size());
+        for (String player : players) {
+            commands.add(new QueuedCommand(player, false, 0, true));
         }
-        processNextCommand();
+        submit(commands);
     }
 
     /**
@@ -268,110 +637,405 @@ public class CommandHandler {
         // Validate duration (max 1 week)
         int validDuration = Math.max(1, Math.min(MAX_TIMED_IGNORE_MINUTES, durationMinutes));
 
+        submit(new QueuedCommand(playerName, true, validDuration, false));
+    }
+
+    private static EnqueueResult submit(QueuedCommand command) {
+        EnqueueResult[] result = new EnqueueResult[1];
+        submit(List.of(command), result);
+        return result[0];
+    }
+
+    private static int submit(List<QueuedCommand> commands) {
+        return submit(commands, null);
+    }
+
+    /**
+     * Queues commands, coalescing each with work already queued or in flight for the same player,
+     * then starts sending. Returns how many server commands were avoided.
+     * When results is non-null it receives the outcome of each command.
+     */
+    private static int submit(List<QueuedCommand> commands, EnqueueResult[] results) {
+        List<QueuedCommand> kept = null;
+        int avoided = 0;
+        boolean events = IgnoreEvents.isEnabled();
         synchronized (QUEUE_LOCK) {
-            commandQueue.add(new QueuedCommand(playerName, true, validDuration, false));
+            for (int i = 0; i < commands.size(); i++) {
+                QueuedCommand command = commands.get(i);
+                EnqueueResult result = enqueue(command);
+                if (results != null) {
+                    results[i] = result;
+                }
+                if (events) {
+                    IgnoreEvents.CommandEnqueued event = commandEvent(new IgnoreEvents.CommandEnqueued(), command);
+                    event.result = result.name();
+                    event.commit();
+                }
+                switch (result) {
+                    case MERGED, IN_FLIGHT -> avoided += 1;
+                    case CANCELLED -> avoided += 2;
+                    case KEPT -> {
+                        avoided += 2;
+                        if (kept == null) {
+                            kept = new ArrayList<>();
+                        }
+                        kept.add(command);
+                    }
+                    default -> {
+                    }
+                }
+            }
+            avoidedCommands += avoided;
         }
+
+        if (kept != null) {
+            // The cancelled remove never reached the server, so only the local entry needs the new ignore.
+            // Either call replaces an expired timed ignore, so its unignore is not queued again.
+            IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
+            for (QueuedCommand command : kept) {
+                if (manager != null && command.durationMinutes > 0) {
+                    manager.addTimedIgnore(command.playerName, command.durationMinutes);
+                } else if (manager != null) {
+                    manager.addPlayer(command.playerName);
+                }
+            }
+        }
+        if (avoided > 0) {
+            WynnIgnoreMod.LOGGER.info("Coalesced queued ignore commands: {} avoided ({} this session)", avoided, avoidedCommands);
+        }
+
         processNextCommand();
+        return avoided;
     }
 
     /**
-     * Called from tick event to process delayed commands waiting for the inter-command delay.
+     * Offers a command to the queue, merging it with an unsent command for the same player:
+     * the same operation is kept once in the more urgent lane with the newer parameters, and an
+     * add followed by a remove (or the reverse) cancel each other out. A remove replaces the queued
+     * add instead when the player is already ignored. Callers hold QUEUE_LOCK.
      */
-    public static void tickProcessQueue() {
-        if (!waitingForConfirmation && nextCommandReadyTime > 0 && System.currentTimeMillis() >= nextCommandReadyTime) {
-            processNextCommand();
+    private static EnqueueResult enqueue(QueuedCommand command) {
+        String key = command.playerName.toLowerCase();
+        QueuedCommand queued = commandQueue.get(key);
+        if (queued == null) {
+            InFlightCommand sending = findInFlight(command.playerName);
+            if (sending != null && sending.command.isAdd == command.isAdd) {
+                return EnqueueResult.IN_FLIGHT;
+            }
+            commandQueue.add(command.lane, command);
+            return EnqueueResult.QUEUED;
         }
+
+        if (queued.isAdd == command.isAdd) {
+            CommandQueue.Lane lane = queued.lane.compareTo(command.lane) <= 0 ? queued.lane : command.lane;
+            if (lane == queued.lane) {
+                commandQueue.replace(key, command.mergedInto(lane, queued));
+            } else {
+                commandQueue.cancel(key);
+                commandQueue.add(lane, command.mergedInto(lane, queued));
+            }
+            return EnqueueResult.MERGED;
+        }
+
+        commandQueue.cancel(key);
+        if (queued.isAdd) {
+            IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
+            if (manager != null && manager.isIgnored(key)) {
+                // Already ignored on the server (a re-timed ignore), so the removal still has to be sent
+                commandQueue.add(command.lane, command);
+                return EnqueueResult.QUEUED;
+            }
+            return EnqueueResult.CANCELLED;
+        }
+        if (queued.batch != null) {
+            // The bulk removal was overridden by a new ignore, so it will never be sent
+            queued.batch.onCancelled(1);
+        }
+        return EnqueueResult.KEPT;
     }
 
     /**
-     * Check for confirmation timeout and process next command if timed out.
-     * Called from tick event.
+     * Tracks a permanent ignore typed by the user, which goes to the server directly instead of through the
+     * queue. An unsent removal of the player (such as an expired timed ignore) is dropped so it cannot undo it.
      */
-    public static void checkConfirmationTimeout() {
-        if (waitingForConfirmation && confirmationStartTime > 0) {
-            long elapsed = System.currentTimeMillis() - confirmationStartTime;
-            long timeout = pendingIsWarCommand ? WAR_CONFIRMATION_TIMEOUT_MS : CONFIRMATION_TIMEOUT_MS;
-            if (elapsed > timeout) {
-                retryCount++;
-                if (retryCount <= getMaxRetries()) {
-                    WynnIgnoreMod.LOGGER.warn("Confirmation timeout for player: {} (retry {}/{})", pendingPlayer, retryCount, getMaxRetries());
-                    sendMessage(Text.literal("[WynnIgnore] No response for ")
-                        .formatted(Formatting.YELLOW)
-                        .append(Text.literal(pendingPlayer != null ? pendingPlayer : "unknown").formatted(Formatting.GOLD))
-                        .append(Text.literal(", retrying (" + retryCount + "/" + getMaxRetries() + ")...").formatted(Formatting.YELLOW)));
-
-                    // Retry: resend the same command after a short delay
-                    waitingForConfirmation = false;
-                    nextCommandReadyTime = System.currentTimeMillis() + getCommandDelayMs();
-                    // Re-add the command to the front of the queue
-                    synchronized (QUEUE_LOCK) {
-                        ((LinkedList<QueuedCommand>) commandQueue).addFirst(
-                            new QueuedCommand(pendingPlayer, pendingIsAdd, pendingDurationMinutes, pendingIsTimedUnignore, pendingIsWarCommand));
-                    }
-                    confirmationStartTime = 0;
-                } else {
-                    WynnIgnoreMod.LOGGER.warn("Confirmation timeout for player: {} (max retries reached, skipping)", pendingPlayer);
-                    sendMessage(Text.literal("[WynnIgnore] Failed to process ")
-                        .formatted(Formatting.RED)
-                        .append(Text.literal(pendingPlayer != null ? pendingPlayer : "unknown").formatted(Formatting.YELLOW))
-                        .append(Text.literal(" after " + getMaxRetries() + " retries. Skipping.").formatted(Formatting.RED)));
-
-                    // Reset state and move to next command
-                    waitingForConfirmation = false;
-                    pendingPlayer = null;
-                    confirmationStartTime = 0;
-                    retryCount = 0;
-                    nextCommandReadyTime = System.currentTimeMillis() + getCommandDelayMs();
+    public static void onDirectIgnore(String playerName) {
+        boolean dropped = false;
+        synchronized (QUEUE_LOCK) {
+            String key = playerName.toLowerCase();
+            QueuedCommand queued = commandQueue.get(key);
+            if (queued != null && !queued.isAdd) {
+                commandQueue.cancel(key);
+                if (queued.batch != null) {
+                    queued.batch.onCancelled(1);
                 }
+                avoidedCommands++;
+                dropped = true;
             }
         }
+        if (dropped) {
+            WynnIgnoreMod.LOGGER.info("Dropped the queued unignore of {} for a new ignore", playerName);
+        }
+        IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
+        if (manager != null) {
+            manager.addPlayer(playerName);
+        }
     }
 
-    private static void processNextCommand() {
-        if (waitingForConfirmation) {
-            return;
+    /**
+     * Returns true if an ignore for the player is queued or waiting for its confirmation.
+     */
+    private static boolean isAddPending(String playerName) {
+        synchronized (QUEUE_LOCK) {
+            QueuedCommand queued = commandQueue.get(playerName.toLowerCase());
+            if (queued != null) {
+                return queued.isAdd;
+            }
+            InFlightCommand sending = findInFlight(playerName);
+            return sending != null && sending.command.isAdd;
+        }
+    }
+
+    /**
+     * Returns how many server commands were avoided this session by merging or cancelling queued work.
+     */
+    public static long getAvoidedCommandCount() {
+        return avoidedCommands;
+    }
+
+    /**
+     * Returns the number of commands waiting in the given priority lane.
+     */
+    public static int getQueueDepth(CommandQueue.Lane lane) {
+        synchronized (QUEUE_LOCK) {
+            return commandQueue.depth(lane);
+        }
+    }
+
+    /**
+     * Returns the number of commands sent and still waiting for their confirmation.
+     */
+    public static int getInFlightCount() {
+        return inFlightCount;
+    }
+
+    /**
+     * Routes commands and messages through the given bridge instead of the Minecraft client.
+     */
+    static void setClientBridge(ClientBridge clientBridge) {
+        bridge = clientBridge;
+    }
+
+    /**
+     * Drops every queued and in-flight command and forgets the send history and measured round trips.
+     */
+    static void clearCommands() {
+        synchronized (QUEUE_LOCK) {
+            commandQueue.clear();
+            inFlight.clear();
+            inFlightCount = 0;
+            commandSent = false;
+            scheduler.cancel(SEND_TASK);
+            scheduler.cancel(TIMEOUT_TASK);
+            scheduler.cancel(PROGRESS_TASK);
+            activeBatch = null;
         }
+        rateController.reset();
+    }
 
-        // Respect delay between commands
-        if (nextCommandReadyTime > 0 && System.currentTimeMillis() < nextCommandReadyTime) {
+    /**
+     * Schedules a timed ignore expiry check for the given wall-clock expiry time, unless one is due sooner.
+     * The task stays idle until the head of the expiry queue is due; each check re-arms it for the next head.
+     */
+    public static void scheduleExpiryCheck(long expiryTime) {
+        long delayMs = Math.max(0, expiryTime - System.currentTimeMillis());
+        scheduler.scheduleNoLaterThan(EXPIRY_TASK, scheduler.now() + delayMs * 1_000_000L);
+    }
+
+    private static void checkTimedIgnoreExpiry() {
+        IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
+        if (manager == null) {
             return;
         }
-        nextCommandReadyTime = 0;
+        long start = System.nanoTime();
+        manager.checkTimedIgnoreExpiry();
+        Metrics.EXPIRY_CHECK.record(Metrics.microsSince(start));
+        long next = manager.getNextExpiryTime();
+        if (next != Long.MAX_VALUE) {
+            scheduleExpiryCheck(next);
+        }
+    }
 
-        MinecraftClient client = MinecraftClient.getInstance();
-        if (client.player == null) {
+    /**
+     * Arms the timeout task for the earliest in-flight deadline. Callers hold QUEUE_LOCK.
+     */
+    private static void scheduleTimeoutCheck() {
+        if (inFlight.isEmpty()) {
+            scheduler.cancel(TIMEOUT_TASK);
             return;
         }
+        long earliest = inFlight.get(0).deadline();
+        for (int i = 1; i < inFlight.size(); i++) {
+            long deadline = inFlight.get(i).deadline();
+            if (deadline - earliest < 0) {
+                earliest = deadline;
+            }
+        }
+        scheduler.schedule(TIMEOUT_TASK, earliest);
+    }
 
-        QueuedCommand cmd;
+    /**
+     * Check in-flight commands for confirmation timeouts, retrying or giving up on each one separately.
+     * Runs from the scheduler when the earliest confirmation deadline passes.
+     */
+    private static void checkConfirmationTimeout() {
+        long now = scheduler.now();
+        List<QueuedCommand> timedOut = null;
+        boolean events = IgnoreEvents.isEnabled();
         synchronized (QUEUE_LOCK) {
-            cmd = commandQueue.poll();
+            for (int i = inFlight.size() - 1; i >= 0; i--) {
+                InFlightCommand command = inFlight.get(i);
+                if (now - command.deadline() >= 0) {
+                    inFlight.remove(i);
+                    if (events) {
+                        IgnoreEvents.CommandTimedOut event = commandEvent(new IgnoreEvents.CommandTimedOut(), command.command);
+                        event.timeoutMs = command.timeoutMs;
+                        event.givenUp = command.command.retryCount >= getMaxRetries();
+                        event.commit();
+                    }
+                    if (timedOut == null) {
+                        timedOut = new ArrayList<>();
+                    }
+                    // Iterating backwards, so prepend to keep the original send order
+                    timedOut.add(0, command.command);
+                }
+            }
+            inFlightCount = inFlight.size();
+            scheduleTimeoutCheck();
+        }
+        if (timedOut == null) {
+            return;
+        }
+        rateController.onTimeout();
+
+        int maxRetries = getMaxRetries();
+        List<QueuedCommand> retries = new ArrayList<>();
+        for (QueuedCommand command : timedOut) {
+            if (command.retryCount < maxRetries) {
+                QueuedCommand retry = command.retry();
+                retries.add(retry);
+                Metrics.RETRIES.increment();
+                if (events) {
+                    commandEvent(new IgnoreEvents.CommandRetried(), retry).commit();
+                }
+                WynnIgnoreMod.LOGGER.warn("Confirmation timeout for player: {} (retry {}/{})", command.playerName, retry.retryCount, maxRetries);
+                sendMessage(Text.literal("[WynnIgnore] No response for ")
+                    .formatted(Formatting.YELLOW)
+                    .append(Text.literal(command.playerName).formatted(Formatting.GOLD))
+                    .append(Text.literal(", retrying (" + retry.retryCount + "/" + maxRetries + ")...").formatted(Formatting.YELLOW)));
+            } else {
+                Metrics.GIVE_UPS.increment();
+                if (command.batch != null) {
+                    command.batch.onFailed();
+                }
+                WynnIgnoreMod.LOGGER.warn("Confirmation timeout for player: {} (max retries reached, skipping)", command.playerName);
+                sendMessage(Text.literal("[WynnIgnore] Failed to process ")
+                    .formatted(Formatting.RED)
+                    .append(Text.literal(command.playerName).formatted(Formatting.YELLOW))
+                    .append(Text.literal(" after " + maxRetries + " retries. Skipping.").formatted(Formatting.RED)));
+            }
         }
 
-        if (cmd != null) {
-            // Reset retry count when starting a genuinely new player (not a retry)
-            if (!cmd.playerName.equalsIgnoreCase(pendingPlayer)) {
-                retryCount = 0;
+        synchronized (QUEUE_LOCK) {
+            // Resend retries ahead of everything else in their lane, in their original order
+            for (int i = retries.size() - 1; i >= 0; i--) {
+                QueuedCommand retry = retries.get(i);
+                if (retry.batch != null && retry.batch.isStopped()) {
+                    retry.batch.onCancelled(1);
+                    continue;
+                }
+                commandQueue.addFirst(retry.lane, retry);
             }
+        }
+        processNextCommand();
+    }
 
-            waitingForConfirmation = true;
-            pendingPlayer = cmd.playerName;
-            pendingIsAdd = cmd.isAdd;
-            pendingDurationMinutes = cmd.durationMinutes;
-            pendingIsTimedUnignore = cmd.isTimedUnignore;
-            pendingIsWarCommand = cmd.isWarCommand;
-            confirmationStartTime = System.currentTimeMillis();
+    /**
+     * Sends queued commands until the in-flight window is full, the inter-command delay has not
+     * passed yet, or the next command is for a player who already has one in flight.
+     * Up to the window size of commands wait for confirmation at once, each sent at least the
+     * command delay after the previous one.
+     */
+    private static void processNextCommand() {
+        if (!bridge.isConnected()) {
+            return;
+        }
 
+        while (true) {
+            QueuedCommand cmd;
+            synchronized (QUEUE_LOCK) {
+                // A confirmation, timeout or new command resumes sending if we stop early
+                scheduler.cancel(SEND_TASK);
+                cmd = commandQueue.peek();
+                if (cmd == null || inFlight.size() >= getWindowSize()) {
+                    return;
+                }
+                // Confirmations are matched by player name, so keep one command per player in flight
+                if (findInFlight(cmd.playerName) != null) {
+                    return;
+                }
+                // Respect delay between commands
+                long now = scheduler.now();
+                long readyTime = lastCommandSentTime + getCommandDelayMs() * 1_000_000L;
+                if (commandSent && now - readyTime < 0) {
+                    scheduler.schedule(SEND_TASK, readyTime);
+                    return;
+                }
+                commandQueue.poll();
+                InFlightCommand sent = new InFlightCommand(cmd, now);
+                inFlight.add(sent);
+                inFlightCount = inFlight.size();
+                scheduler.scheduleNoLaterThan(TIMEOUT_TASK, sent.deadline());
+                lastCommandSentTime = now;
+                commandSent = true;
+                Metrics.COMMANDS_SENT.increment();
+                Metrics.SENT_LAST_MINUTE.record(now);
+            }
+
+            IgnoreEvents.CommandSent event = IgnoreEvents.isEnabled() ? commandEvent(new IgnoreEvents.CommandSent(), cmd) : null;
+            if (event != null) {
+                event.begin();
+            }
             sendingQueuedCommand = true;
-            if (cmd.isAdd) {
-                client.player.networkHandler.sendChatCommand("ignore " + cmd.playerName);
-            } else {
-                client.player.networkHandler.sendChatCommand("ignore remove " + cmd.playerName);
+            try {
+                if (cmd.isAdd) {
+                    bridge.sendCommand("ignore " + cmd.playerName);
+                } else {
+                    bridge.sendCommand("ignore remove " + cmd.playerName);
+                }
+            } finally {
+                sendingQueuedCommand = false;
+            }
+            if (event != null) {
+                event.inFlight = inFlightCount;
+                event.delayMs = getCommandDelayMs();
+                event.commit();
             }
-            sendingQueuedCommand = false;
         }
     }
 
+    private static InFlightCommand findInFlight(String playerName) {
+        for (InFlightCommand command : inFlight) {
+            if (command.command.playerName.equalsIgnoreCase(playerName)) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+    private static <T extends IgnoreEvents.CommandEvent> T commandEvent(T event, QueuedCommand command) {
+        return IgnoreEvents.describe(event, command.playerName, command.lane, command.isAdd, command.retryCount);
+    }
+
     /**
      * Returns true if we're currently sending a queued command.
      */
@@ -380,113 +1044,113 @@ public class CommandHandler {
     }
 
     /**
-     * Strips formatting codes, PUA characters, and other special characters from a message.
-     */
-    private static String stripSpecialCharacters(String message) {
-        if (message == null) {
-            return "";
-        }
-        String stripped = message.replaceAll("§.", "");
-        stripped = stripped.replaceAll("[\\uE000-\\uF8FF]", "");
-        stripped = stripped.replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F]", "");
-        return stripped;
-    }
-
-    /**
-     * Called when a chat message is received.
+     * Called when a chat message is received. Matches the message against every in-flight command.
      */
     public static boolean onChatMessage(String message) {
-        if (!waitingForConfirmation || pendingPlayer == null) {
+        if (inFlightCount == 0) {
             return false;
         }
 
-        String cleanedMessage = stripSpecialCharacters(message);
-        String lowerMessage = cleanedMessage.toLowerCase();
-        String lowerPlayer = pendingPlayer.toLowerCase();
+        // Single pass over the raw message; only confirmations go on to the per-player name check
+        long scanStart = System.nanoTime();
+        int found = ConfirmationMatcher.matchPhrases(message);
+        Metrics.CHAT_SCAN.record(System.nanoTime() - scanStart);
+        if (found == 0) {
+            return false;
+        }
 
-        // Check for add confirmation
-        if (pendingIsAdd && lowerMessage.contains(lowerPlayer) && lowerMessage.contains("has been added to your ignore list")) {
-            IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
-            if (manager == null) {
-                resetPendingState();
-                return true;
+        InFlightCommand confirmed = null;
+        synchronized (QUEUE_LOCK) {
+            for (int i = 0; i < inFlight.size(); i++) {
+                InFlightCommand command = inFlight.get(i);
+                if (command.acceptsPhrases(found) && command.matcher.mentionsPlayer(message)) {
+                    confirmed = command;
+                    inFlight.remove(i);
+                    inFlightCount = inFlight.size();
+                    scheduleTimeoutCheck();
+                    break;
+                }
             }
+        }
+        if (confirmed == null) {
+            return false;
+        }
+        long rttMs = (scheduler.now() - confirmed.sentTime) / 1_000_000L;
+        rateController.onConfirmed(rttMs, confirmed.command.retryCount > 0);
+        Metrics.CONFIRMATIONS.increment();
+        Metrics.CONFIRMATION_RTT.record(rttMs);
+        if (IgnoreEvents.isEnabled()) {
+            IgnoreEvents.CommandConfirmed event = commandEvent(new IgnoreEvents.CommandConfirmed(), confirmed.command);
+            event.rttMs = rttMs;
+            event.notIgnored = (found & ConfirmationMatcher.NOT_IGNORED) != 0;
+            event.commit();
+        }
+
+        onCommandConfirmed(confirmed.command, found);
+        processNextCommand();
+        return true;
+    }
+
+    private static void onCommandConfirmed(QueuedCommand cmd, int found) {
+        if (cmd.batch != null) {
+            cmd.batch.onCompleted();
+        }
+        IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
+        if (manager == null) {
+            return;
+        }
+        String player = cmd.playerName;
 
-            int duration = pendingDurationMinutes;
+        // Add confirmation
+        if (cmd.isAdd) {
+            int duration = cmd.durationMinutes;
             if (duration > 0) {
-                manager.addTimedIgnore(pendingPlayer, duration);
+                manager.addTimedIgnore(player, duration);
                 sendMessage(Text.literal("[WynnIgnore] Ignored ")
                     .formatted(Formatting.GREEN)
-                    .append(Text.literal(pendingPlayer).formatted(Formatting.YELLOW))
+                    .append(Text.literal(player).formatted(Formatting.YELLOW))
                     .append(Text.literal(" for " + formatDuration(duration) + ".").formatted(Formatting.GREEN)));
             } else {
                 // Permanent ignore
-                manager.addPlayer(pendingPlayer);
+                manager.addPlayer(player);
                 sendMessage(Text.literal("[WynnIgnore] Ignored ")
                     .formatted(Formatting.GREEN)
-                    .append(Text.literal(pendingPlayer).formatted(Formatting.YELLOW))
+                    .append(Text.literal(player).formatted(Formatting.YELLOW))
                     .append(Text.literal(" permanently.").formatted(Formatting.GREEN)));
             }
-
-            resetPendingState();
-            nextCommandReadyTime = System.currentTimeMillis() + getCommandDelayMs();
-            return true;
+            return;
         }
 
-        // Check for remove confirmation
-        if (!pendingIsAdd && lowerMessage.contains(lowerPlayer) && lowerMessage.contains("has been removed from your ignore list")) {
-            IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
-            if (manager == null) {
-                resetPendingState();
-                return true;
-            }
-
-            if (pendingIsTimedUnignore) {
-                manager.onTimedUnignoreComplete(pendingPlayer);
+        // Remove confirmation
+        if ((found & ConfirmationMatcher.REMOVED) != 0) {
+            if (cmd.isTimedUnignore) {
+                manager.onTimedUnignoreComplete(player);
                 sendMessage(Text.literal("[WynnIgnore] Auto-unignored ")
                     .formatted(Formatting.GRAY)
-                    .append(Text.literal(pendingPlayer).formatted(Formatting.YELLOW))
+                    .append(Text.literal(player).formatted(Formatting.YELLOW))
                     .append(Text.literal(" (timed ignore expired).").formatted(Formatting.GRAY)));
             } else {
-                manager.removePlayer(pendingPlayer);
-                sendMessage(Text.literal("[WynnIgnore] Unignored ")
-                    .formatted(Formatting.GREEN)
-                    .append(Text.literal(pendingPlayer).formatted(Formatting.YELLOW))
-                    .append(Text.literal(".").formatted(Formatting.GREEN)));
+                manager.removePlayer(player);
+                // Bulk operations report progress on the action bar instead of a line per player
+                if (cmd.batch == null) {
+                    sendMessage(Text.literal("[WynnIgnore] Unignored ")
+                        .formatted(Formatting.GREEN)
+                        .append(Text.literal(player).formatted(Formatting.YELLOW))
+                        .append(Text.literal(".").formatted(Formatting.GREEN)));
+                }
             }
-
-            resetPendingState();
-            nextCommandReadyTime = System.currentTimeMillis() + getCommandDelayMs();
-            return true;
+            return;
         }
 
-        // Check for "not being ignored" response (player already unignored on server)
-        if (!pendingIsAdd && lowerMessage.contains(lowerPlayer) && lowerMessage.contains("is not being ignored")) {
-            IgnoreListManager manager = WynnIgnoreMod.getIgnoreListManager();
-            if (manager == null) {
-                resetPendingState();
-                return true;
-            }
-
-            manager.removePlayer(pendingPlayer);
-            sendMessage(Text.literal("[WynnIgnore] ")
-                .formatted(Formatting.GRAY)
-                .append(Text.literal(pendingPlayer).formatted(Formatting.YELLOW))
-                .append(Text.literal(" was not ignored on the server. Removed from local list.").formatted(Formatting.GRAY)));
-
-            resetPendingState();
-            nextCommandReadyTime = System.currentTimeMillis() + getCommandDelayMs();
-            return true;
+        // "Not being ignored" response (player already unignored on server)
+        manager.removePlayer(player);
+        if (cmd.batch != null) {
+            return;
         }
-
-        return false;
-    }
-
-    private static void resetPendingState() {
-        waitingForConfirmation = false;
-        pendingPlayer = null;
-        confirmationStartTime = 0;
-        retryCount = 0;
+        sendMessage(Text.literal("[WynnIgnore] ")
+            .formatted(Formatting.GRAY)
+            .append(Text.literal(player).formatted(Formatting.YELLOW))
+            .append(Text.literal(" was not ignored on the server. Removed from local list.").formatted(Formatting.GRAY)));
     }
 
     private static String formatDuration(int minutes) {
@@ -510,128 +1174,77 @@ public class CommandHandler {
     }
 
     /**
-     * Strips PUA characters, surrogate pairs, and Minecraft formatting codes from a string,
-     * keeping only basic printable characters.
+     * Extracts a player name from a disguised player's text display entity.
+     * Finds the DISGUISED glyph tag and takes the last plain-text word before it as the username.
+     * Handles both formats: [username] [DISGUISED] and [PUA rank] [username] [DISGUISED].
      */
-    private static String stripPUACharacters(String str) {
-        if (str == null) return "";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < str.length(); i++) {
-            char c = str.charAt(i);
-            // Skip surrogate pairs entirely
-            if (Character.isHighSurrogate(c)) {
-                if (i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
-                    i++;
-                }
-                continue;
-            }
-            if (Character.isLowSurrogate(c)) continue;
-            // Skip Private Use Area (U+E000-U+F8FF)
-            if (c >= '\uE000' && c <= '\uF8FF') continue;
-            // Skip Minecraft formatting codes
-            if (c == '\u00a7' && i + 1 < str.length()) {
-                i++;
-                continue;
-            }
-            // Keep spaces, basic punctuation, and alphanumerics
-            if (c == ' ' || c == '-' || c == '\'' || c == '_') {
-                sb.append(c);
-            } else if (Character.isLetterOrDigit(c) && c < 0x2000) {
-                sb.append(c);
-            }
-        }
-        return sb.toString().trim();
+    static String extractDisguisedPlayerName(String text) {
+        String[] name = new String[1];
+        GlyphTagScanner.scan(text, (tag, word) -> onDisguisedTag(tag, word, name));
+        return name[0];
     }
 
     /**
-     * Checks if a char position is part of a Wynncraft custom font glyph:
-     * a BMP PUA char (U+E000-U+F8FF) followed by the marker surrogate pair U+DAFF U+DFFF.
+     * Same as {@link #extractDisguisedPlayerName(String)}, reading the text component directly.
      */
-    private static boolean isWynnFontGlyph(String text, int i) {
-        if (i + 2 >= text.length()) return false;
-        char c = text.charAt(i);
-        return c >= '\uE000' && c <= '\uF8FF'
-            && text.charAt(i + 1) == WYNN_FONT_SURR_HIGH
-            && text.charAt(i + 2) == WYNN_FONT_SURR_LOW;
+    static String extractDisguisedPlayerName(Text text) {
+        String[] name = new String[1];
+        GlyphTagScanner.scan(text, (tag, word) -> onDisguisedTag(tag, word, name));
+        return name[0];
     }
 
-    /**
-     * Scans for the DISGUISED glyph sequence in the text and returns its start index, or -1.
-     * Each glyph is 3 chars: [BMP PUA] [DAFF] [DFFF], so the full sequence is 30 chars.
-     */
-    private static int findDisguisedTag(String text) {
-        int seqLen = DISGUISED_GLYPHS.length * 3;
-        if (text.length() < seqLen) return -1;
-        for (int i = 0; i <= text.length() - seqLen; i++) {
-            boolean match = true;
-            for (int j = 0; j < DISGUISED_GLYPHS.length; j++) {
-                int pos = i + j * 3;
-                if (!isWynnFontGlyph(text, pos) || text.charAt(pos) != DISGUISED_GLYPHS[j]) {
-                    match = false;
-                    break;
-                }
-            }
-            if (match) return i;
+    private static boolean onDisguisedTag(int tag, String word, String[] name) {
+        if (tag != DISGUISED_TAG) {
+            return true;
+        }
+        // Minecraft usernames are 3-16 chars, alphanumeric + underscore
+        if (isValidUsername(word)) {
+            name[0] = word;
         }
-        return -1;
+        // Only the first DISGUISED tag is considered
+        return false;
     }
 
-    /**
-     * Extracts a player name from a disguised player's text display entity.
-     * Finds the DISGUISED glyph sequence, then takes the stripped text before it as the username.
-     * Handles both formats: [username] [DISGUISED] and [PUA rank] [username] [DISGUISED].
-     */
-    static String extractDisguisedPlayerName(String text) {
-        if (text == null || text.length() < 6) return null;
-
-        int tagIndex = findDisguisedTag(text);
-        if (tagIndex < 0) return null;
-
-        // Strip PUAs/surrogates from everything before the DISGUISED tag
-        String stripped = stripPUACharacters(text.substring(0, tagIndex));
-        if (stripped.isEmpty()) return null;
-
-        // If there are multiple tokens (e.g. guild tag + username), take the last one
-        String[] tokens = stripped.split("\\s+");
-        String name = tokens[tokens.length - 1];
-
-        // Minecraft usernames are 3-16 chars, alphanumeric + underscore
-        if (name.length() < 3 || name.length() > 16) return null;
-        if (!name.matches("[A-Za-z0-9_]+")) return null;
-        return name;
+    private static boolean isValidUsername(String name) {
+        if (name.length() < 3 || name.length() > 16) return false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9') && c != '_') {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Scans nearby text display entities for disguised players and returns their usernames.
+     * Collects other players and disguised player names within maxDistance in a single sweep.
+     * Only entities in the world sections overlapping the search box are visited, distances
+     * are compared squared, and nametags are decoded through {@link DisguisedNameCache}.
+     * Returns the number of candidate entities the world query returned.
      */
-    private static List<String> findDisguisedPlayers(double maxDistance) {
+    static int scanNearby(double maxDistance, List<AbstractClientPlayerEntity> players, List<String> disguisedNames) {
         MinecraftClient client = MinecraftClient.getInstance();
-        if (client.world == null || client.player == null) return List.of();
-
-        List<String> disguisedNames = new ArrayList<>();
-        for (Entity entity : client.world.getEntities()) {
-            if (!(entity instanceof DisplayEntity.TextDisplayEntity textDisplay)) continue;
-            double distance = client.player.distanceTo(textDisplay);
-            if (distance > maxDistance) continue;
-            try {
-                var data = textDisplay.getData();
-                if (data == null || data.text() == null) continue;
-                String text = data.text().getString();
-                String name = extractDisguisedPlayerName(text);
-                if (name != null) {
-                    disguisedNames.add(name);
-                }
-            } catch (Exception e) {
-                // Ignore errors reading text display data
+        if (client.world == null || client.player == null) return 0;
+
+        double maxDistanceSq = maxDistance * maxDistance;
+        Box area = client.player.getBoundingBox().expand(maxDistance);
+        List<Entity> candidates = client.world.getOtherEntities(client.player, area,
+            entity -> entity instanceof AbstractClientPlayerEntity || entity instanceof DisplayEntity.TextDisplayEntity);
+        for (Entity entity : candidates) {
+            if (client.player.squaredDistanceTo(entity) > maxDistanceSq) continue;
+            if (entity instanceof AbstractClientPlayerEntity player) {
+                players.add(player);
+                continue;
+            }
+            String name = DisguisedNameCache.get((DisplayEntity.TextDisplayEntity) entity);
+            if (name != null) {
+                disguisedNames.add(name);
             }
         }
-        return disguisedNames;
+        return candidates.size();
     }
 
     private static void sendMessage(Text message) {
-        MinecraftClient client = MinecraftClient.getInstance();
-        if (client.player != null) {
-            client.player.sendMessage(message, false);
-        }
+        bridge.showMessage(message, false);
     }
 }
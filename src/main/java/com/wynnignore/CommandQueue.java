@@ -0,0 +1,194 @@
+package com.wynnignore;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Command queue split into priority lanes, with an index of queued items by key (the player name).
+ *
+ * Higher lanes always drain first, except that the bulk lane is served once after every
+ * {@link #STARVATION_LIMIT} commands taken from other lanes while it waits, so background work
+ * keeps moving during long war or interactive bursts.
+ *
+ * The index makes looking up, replacing and cancelling the queued item for a key O(1). Cancelled
+ * items are left in their lane and skipped when they reach the front.
+ *
+ * Not thread-safe; callers synchronize externally.
+ */
+public class CommandQueue<T> {
+    // Highest priority first
+    public enum Lane {
+        // Time-sensitive /warignore commands
+        WAR,
+        // Commands the user typed for a single player
+        USER,
+        // Bulk and background work: /unignore all, expired timed ignores
+        BULK
+    }
+
+    static final int STARVATION_LIMIT = 8;
+
+    private static final Lane[] LANES = Lane.values();
+
+    private static final class Node<T> {
+        final String key;
+        final Lane lane;
+        T item;
+        boolean cancelled;
+
+        Node(String key, Lane lane, T item) {
+            this.key = key;
+            this.lane = lane;
+            this.item = item;
+        }
+    }
+
+    private final Function<T, String> keyFunction;
+    private final ArrayDeque<Node<T>>[] lanes;
+    // Live (not cancelled) items per lane
+    private final int[] depths;
+    // Most recently queued live item for each key
+    private final Map<String, Node<T>> index = new HashMap<>();
+    // Commands taken from higher lanes since the bulk lane was last served while non-empty
+    private int bulkSkipped = 0;
+
+    @SuppressWarnings("unchecked")
+    public CommandQueue(Function<T, String> keyFunction) {
+        this.keyFunction = keyFunction;
+        this.lanes = new ArrayDeque[LANES.length];
+        this.depths = new int[LANES.length];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ArrayDeque<>();
+        }
+    }
+
+    public void add(Lane lane, T item) {
+        Node<T> node = new Node<>(keyFunction.apply(item), lane, item);
+        lanes[lane.ordinal()].addLast(node);
+        depths[lane.ordinal()]++;
+        index.put(node.key, node);
+    }
+
+    /**
+     * Puts an item back at the front of its lane, e.g. a command being retried.
+     * It only becomes the indexed item for its key if nothing newer is queued for that key.
+     */
+    public void addFirst(Lane lane, T item) {
+        Node<T> node = new Node<>(keyFunction.apply(item), lane, item);
+        lanes[lane.ordinal()].addFirst(node);
+        depths[lane.ordinal()]++;
+        index.putIfAbsent(node.key, node);
+    }
+
+    /**
+     * Returns the most recently queued item for the key, or null if none is waiting.
+     */
+    public T get(String key) {
+        Node<T> node = index.get(key);
+        return node == null ? null : node.item;
+    }
+
+    /**
+     * Swaps the queued item for the key in place, keeping its position. Returns false if none is queued.
+     */
+    public boolean replace(String key, T item) {
+        Node<T> node = index.get(key);
+        if (node == null) {
+            return false;
+        }
+        node.item = item;
+        return true;
+    }
+
+    /**
+     * Cancels the most recently queued item for the key. Returns the cancelled item, or null if none was queued.
+     */
+    public T cancel(String key) {
+        Node<T> node = index.remove(key);
+        if (node == null) {
+            return null;
+        }
+        // The node stays in its lane and is dropped when it reaches the front
+        node.cancelled = true;
+        depths[node.lane.ordinal()]--;
+        return node.item;
+    }
+
+    /**
+     * Returns the item {@link #poll()} would return, without removing it.
+     */
+    public T peek() {
+        Lane lane = nextLane();
+        return lane == null ? null : lanes[lane.ordinal()].peekFirst().item;
+    }
+
+    public T poll() {
+        Lane lane = nextLane();
+        if (lane == null) {
+            return null;
+        }
+        if (lane == Lane.BULK) {
+            bulkSkipped = 0;
+        } else if (depths[Lane.BULK.ordinal()] > 0) {
+            bulkSkipped++;
+        }
+        Node<T> node = lanes[lane.ordinal()].pollFirst();
+        depths[lane.ordinal()]--;
+        if (index.get(node.key) == node) {
+            index.remove(node.key);
+        }
+        return node.item;
+    }
+
+    private Lane nextLane() {
+        if (bulkSkipped >= STARVATION_LIMIT && hasLive(Lane.BULK)) {
+            return Lane.BULK;
+        }
+        for (Lane lane : LANES) {
+            if (hasLive(lane)) {
+                return lane;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops cancelled items from the front of the lane and returns true if a live item remains.
+     */
+    private boolean hasLive(Lane lane) {
+        ArrayDeque<Node<T>> deque = lanes[lane.ordinal()];
+        Node<T> head;
+        while ((head = deque.peekFirst()) != null && head.cancelled) {
+            deque.pollFirst();
+        }
+        return head != null;
+    }
+
+    public int depth(Lane lane) {
+        return depths[lane.ordinal()];
+    }
+
+    public int size() {
+        int size = 0;
+        for (int depth : depths) {
+            size += depth;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (ArrayDeque<Node<T>> lane : lanes) {
+            lane.clear();
+        }
+        Arrays.fill(depths, 0);
+        index.clear();
+        bulkSkipped = 0;
+    }
+}
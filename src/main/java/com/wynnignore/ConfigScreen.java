@@ -38,10 +38,24 @@ public class ConfigScreen {
             .setDefaultValue(500)
             .setMin(100)
             .setMax(1000)
-            .setTooltip(Text.literal("Delay between queued /ignore commands to avoid rate limiting"))
+            .setTooltip(Text.literal("Delay between queued /ignore commands to avoid rate limiting (the maximum when adaptive)"))
             .setSaveConsumer(val -> config.setCommandDelayMs(val))
             .build());
 
+        general.addEntry(entryBuilder.startBooleanToggle(Text.literal("Adaptive Command Delay"), config.isAdaptiveCommandDelay())
+            .setDefaultValue(true)
+            .setTooltip(Text.literal("Speed up while the server confirms quickly and back off when it stops responding"))
+            .setSaveConsumer(config::setAdaptiveCommandDelay)
+            .build());
+
+        general.addEntry(entryBuilder.startIntField(Text.literal("Min Command Delay (ms)"), config.getMinCommandDelayMs())
+            .setDefaultValue(100)
+            .setMin(50)
+            .setMax(1000)
+            .setTooltip(Text.literal("Lowest delay the adaptive controller may use between commands"))
+            .setSaveConsumer(config::setMinCommandDelayMs)
+            .build());
+
         general.addEntry(entryBuilder.startIntField(Text.literal("Max Retries"), config.getCommandMaxRetries())
             .setDefaultValue(3)
             .setMin(0)
@@ -50,6 +64,38 @@ public class ConfigScreen {
             .setSaveConsumer(config::setCommandMaxRetries)
             .build());
 
+        general.addEntry(entryBuilder.startIntField(Text.literal("Commands In Flight"), config.getCommandWindowSize())
+            .setDefaultValue(3)
+            .setMin(1)
+            .setMax(10)
+            .setTooltip(Text.literal("How many /ignore commands may wait for a server response at the same time"))
+            .setSaveConsumer(config::setCommandWindowSize)
+            .build());
+
+        general.addEntry(entryBuilder.startBooleanToggle(Text.literal("Journal Persistence"), config.isJournalPersistence())
+            .setDefaultValue(true)
+            .setTooltip(Text.literal("Append each change to a small journal instead of rewriting the whole ignore list file"))
+            .setSaveConsumer(config::setJournalPersistence)
+            .build());
+
+        general.addEntry(entryBuilder.startBooleanToggle(Text.literal("Binary Snapshots"), config.isBinarySnapshots())
+            .setDefaultValue(false)
+            .setTooltip(Text.literal("Store the ignore list in a compact binary file that loads faster for very large lists"))
+            .setSaveConsumer(config::setBinarySnapshots)
+            .build());
+
+        general.addEntry(entryBuilder.startBooleanToggle(Text.literal("Record Chat"), config.isRecordChat())
+            .setDefaultValue(false)
+            .setTooltip(Text.literal("Save incoming chat messages to config/wynnignore_recordings for offline replay when debugging ignore confirmations"))
+            .setSaveConsumer(config::setRecordChat)
+            .build());
+
+        general.addEntry(entryBuilder.startBooleanToggle(Text.literal("Flight Recorder Events"), config.isFlightRecorderEvents())
+            .setDefaultValue(false)
+            .setTooltip(Text.literal("Emit Java Flight Recorder events for each ignore command, save, load and war scan while a recording is running"))
+            .setSaveConsumer(config::setFlightRecorderEvents)
+            .build());
+
         return builder.build();
     }
 }
@@ -0,0 +1,197 @@
+package com.wynnignore;
+
+/**
+ * Recognizes the server's ignore confirmations in chat messages.
+ *
+ * Formatting codes ({@code §x}), other Private Use Area characters and control characters are skipped
+ * inline, Wynncraft custom-font glyphs are decoded to their letters through {@link WynnFontDecoder},
+ * and every remaining character is lowercased and fed to KMP automata, so a message is scanned once
+ * without allocating. {@link #matchPhrases} runs on every message; the per-player name check only runs
+ * on the rare messages that contain a confirmation phrase. Names only match as whole words, so a
+ * confirmation for "bobby" is never taken for "bob". Instances are immutable, so they can be shared
+ * between threads.
+ */
+public final class ConfirmationMatcher {
+    // Bit flags returned by matchPhrases()
+    public static final int ADDED = 1;
+    public static final int REMOVED = 1 << 1;
+    public static final int NOT_IGNORED = 1 << 2;
+
+    private static final Pattern ADDED_PHRASE = new Pattern("has been added to your ignore list");
+    private static final Pattern REMOVED_PHRASE = new Pattern("has been removed from your ignore list");
+    private static final Pattern NOT_IGNORED_PHRASE = new Pattern("is not being ignored");
+
+    private final Pattern name;
+
+    public ConfirmationMatcher(String playerName) {
+        this.name = new Pattern(playerName.toLowerCase());
+    }
+
+    /**
+     * Returns the confirmation phrases found in the message as a combination of {@link #ADDED},
+     * {@link #REMOVED} and {@link #NOT_IGNORED}, or 0 if there are none.
+     */
+    public static int matchPhrases(String message) {
+        if (message == null) {
+            return 0;
+        }
+
+        int addedState = 0;
+        int removedState = 0;
+        int notIgnoredState = 0;
+        int found = 0;
+
+        int length = message.length();
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            // Skip formatting codes together with their code character
+            if (c == '\u00a7' && i + 1 < length) {
+                i++;
+                continue;
+            }
+            if (isPrivateUse(c)) {
+                // Read custom-font glyphs as their letters, drop any other PUA character
+                if (!WynnFontDecoder.isGlyph(message, i)) {
+                    continue;
+                }
+                c = WynnFontDecoder.decodeGlyph(c);
+                i += 2;
+                if (c == 0) {
+                    continue;
+                }
+            } else if (isSkipped(c)) {
+                continue;
+            }
+            c = Character.toLowerCase(c);
+
+            addedState = ADDED_PHRASE.advance(addedState, c);
+            if (addedState == ADDED_PHRASE.chars.length) {
+                found |= ADDED;
+                addedState = ADDED_PHRASE.restart();
+            }
+            removedState = REMOVED_PHRASE.advance(removedState, c);
+            if (removedState == REMOVED_PHRASE.chars.length) {
+                found |= REMOVED;
+                removedState = REMOVED_PHRASE.restart();
+            }
+            notIgnoredState = NOT_IGNORED_PHRASE.advance(notIgnoredState, c);
+            if (notIgnoredState == NOT_IGNORED_PHRASE.chars.length) {
+                found |= NOT_IGNORED;
+                notIgnoredState = NOT_IGNORED_PHRASE.restart();
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns true if the message mentions this matcher's player as a whole word, ignoring case and formatting.
+     */
+    public boolean mentionsPlayer(String message) {
+        if (name.chars.length == 0) {
+            return true;
+        }
+        if (message == null) {
+            return false;
+        }
+
+        int state = 0;
+        // One bit per character read, set for name characters; bit 0 is the latest
+        long wordHistory = 0;
+        // A full match waiting to see whether the next character ends the word
+        boolean matched = false;
+        int length = message.length();
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            if (c == '\u00a7' && i + 1 < length) {
+                i++;
+                continue;
+            }
+            if (isPrivateUse(c)) {
+                if (!WynnFontDecoder.isGlyph(message, i)) {
+                    continue;
+                }
+                c = WynnFontDecoder.decodeGlyph(c);
+                i += 2;
+                if (c == 0) {
+                    continue;
+                }
+            } else if (isSkipped(c)) {
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            boolean wordChar = isNameChar(c);
+            if (matched && !wordChar) {
+                return true;
+            }
+            matched = false;
+            wordHistory = wordHistory << 1 | (wordChar ? 1 : 0);
+
+            state = name.advance(state, c);
+            if (state == name.chars.length) {
+                // The character before the match must not be part of the same word
+                int before = name.chars.length;
+                matched = before >= Long.SIZE || (wordHistory >>> before & 1) == 0;
+                state = name.restart();
+            }
+        }
+        return matched;
+    }
+
+    private static boolean isPrivateUse(char c) {
+        return c >= '\uE000' && c <= '\uF8FF';
+    }
+
+    /**
+     * Characters allowed in a Minecraft player name.
+     */
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * Control characters other than tab, newline and carriage return.
+     */
+    private static boolean isSkipped(char c) {
+        return c < 0x20 && c != '\t' && c != '\n' && c != '\r';
+    }
+
+    /**
+     * A lowercase search string with its KMP failure table.
+     */
+    private static final class Pattern {
+        final char[] chars;
+        final int[] failure;
+
+        Pattern(String text) {
+            this.chars = text.toCharArray();
+            this.failure = new int[chars.length];
+            int k = 0;
+            for (int i = 1; i < chars.length; i++) {
+                while (k > 0 && chars[i] != chars[k]) {
+                    k = failure[k - 1];
+                }
+                if (chars[i] == chars[k]) {
+                    k++;
+                }
+                failure[i] = k;
+            }
+        }
+
+        /**
+         * Returns the number of pattern characters matched after consuming c.
+         */
+        int advance(int state, char c) {
+            while (state > 0 && chars[state] != c) {
+                state = failure[state - 1];
+            }
+            return chars[state] == c ? state + 1 : state;
+        }
+
+        /**
+         * State to continue from after a full match.
+         */
+        int restart() {
+            return failure[chars.length - 1];
+        }
+    }
+}
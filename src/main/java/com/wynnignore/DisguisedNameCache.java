@@ -0,0 +1,75 @@
+package com.wynnignore;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.entity.decoration.DisplayEntity;
+import net.minecraft.text.Text;
+
+/**
+ * Caches the disguised player name decoded from each text display entity, keyed by entity id.
+ * Each entry remembers the text it was decoded from and is decoded again once the display shows a
+ * different text, so a lookup between a tracker update and the display refreshing its render data
+ * never pins a stale name. Entries are dropped when the entity's tracked data changes, when it
+ * unloads, or when the world changes, so nametags are decoded once per change instead of on every
+ * /warignore.
+ * Only accessed from the client thread.
+ */
+public class DisguisedNameCache {
+    // Primitive keys, since invalidate() runs for every tracked data packet
+    private static final Int2ObjectOpenHashMap<Entry> entries = new Int2ObjectOpenHashMap<>();
+
+    private DisguisedNameCache() {
+    }
+
+    /**
+     * Returns the disguised player name shown by the display, or null if it shows none.
+     */
+    public static String get(DisplayEntity.TextDisplayEntity textDisplay) {
+        Text text = getText(textDisplay);
+        if (text == null) {
+            // Render data not set up yet; look again next time instead of remembering nothing
+            return null;
+        }
+        int id = textDisplay.getId();
+        Entry entry = entries.get(id);
+        if (entry == null || entry.text() != text) {
+            entry = new Entry(text, decode(text));
+            entries.put(id, entry);
+        }
+        return entry.name();
+    }
+
+    /**
+     * Forgets the decoded name of an entity whose tracked data changed.
+     */
+    public static void invalidate(int entityId) {
+        entries.remove(entityId);
+    }
+
+    public static void clear() {
+        entries.clear();
+    }
+
+    public static int size() {
+        return entries.size();
+    }
+
+    private static Text getText(DisplayEntity.TextDisplayEntity textDisplay) {
+        var data = textDisplay.getData();
+        return data != null ? data.text() : null;
+    }
+
+    private static String decode(Text text) {
+        try {
+            return CommandHandler.extractDisguisedPlayerName(text);
+        } catch (Exception e) {
+            // Ignore errors reading text display data
+            return null;
+        }
+    }
+
+    /**
+     * A decoded name, or null for none, and the text instance it was decoded from.
+     */
+    private record Entry(Text text, String name) {
+    }
+}
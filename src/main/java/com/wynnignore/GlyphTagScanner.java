@@ -0,0 +1,252 @@
+package com.wynnignore;
+
+import net.minecraft.text.StringVisitable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Finds registered tags written in Wynncraft's custom font in a single left-to-right pass.
+ * Each glyph is 3 Java chars: [BMP PUA selector] [U+DAFF] [U+DFFF]. Tags are runs of
+ * consecutive glyphs, matched on their selectors with an Aho-Corasick automaton, so every
+ * registered tag is found in linear time however many there are.
+ * Text components are scanned segment by segment through a visitor, without flattening them first.
+ */
+public class GlyphTagScanner {
+    /**
+     * Receives each tag found, with the last plain-text word before it (or "" if there is none).
+     * Returns false to stop scanning.
+     */
+    public interface Listener {
+        boolean onTag(int tagId, String precedingWord);
+    }
+
+    private static final List<char[]> tags = new ArrayList<>();
+    private static volatile Automaton automaton = new Automaton(List.of());
+
+    private GlyphTagScanner() {
+    }
+
+    /**
+     * Registers a tag by the selector chars of its glyphs and returns its id.
+     * Use {@link WynnFontDecoder#encodeSelectors} to register a tag by its text.
+     */
+    public static synchronized int register(char... selectors) {
+        if (selectors.length == 0) {
+            throw new IllegalArgumentException("Empty glyph tag");
+        }
+        tags.add(selectors.clone());
+        automaton = new Automaton(tags);
+        return tags.size() - 1;
+    }
+
+    public static void scan(String text, Listener listener) {
+        if (text != null) {
+            new Scan(automaton, listener).feed(text);
+        }
+    }
+
+    public static void scan(StringVisitable text, Listener listener) {
+        if (text == null) {
+            return;
+        }
+        Scan scan = new Scan(automaton, listener);
+        text.visit(segment -> scan.feed(segment) ? Optional.empty() : StringVisitable.TERMINATE_VISIT);
+    }
+
+    /**
+     * State of one pass; survives across text segments so glyphs and words may span them.
+     */
+    private static class Scan {
+        private final Automaton automaton;
+        private final Listener listener;
+        // The word being read and the last complete one; swapped on spaces instead of copied
+        private StringBuilder word = new StringBuilder();
+        private StringBuilder lastWord = new StringBuilder();
+        private int node = 0;
+        // 0 = between glyphs, 1 = selector seen, 2 = selector and high marker seen
+        private int glyphPhase = 0;
+        private char selector;
+        private boolean skipFormattingCode = false;
+
+        Scan(Automaton automaton, Listener listener) {
+            this.automaton = automaton;
+            this.listener = listener;
+        }
+
+        /**
+         * Feeds one segment. Returns false once the listener asked to stop.
+         */
+        boolean feed(String segment) {
+            for (int i = 0; i < segment.length(); i++) {
+                char c = segment.charAt(i);
+                if (glyphPhase == 1 && c == WynnFontDecoder.GLYPH_MARKER_HIGH) {
+                    glyphPhase = 2;
+                    continue;
+                }
+                if (glyphPhase == 2 && c == WynnFontDecoder.GLYPH_MARKER_LOW) {
+                    glyphPhase = 0;
+                    if (!onGlyph(selector)) {
+                        return false;
+                    }
+                    continue;
+                }
+                if (glyphPhase != 0) {
+                    // An incomplete glyph breaks any run of glyphs
+                    glyphPhase = 0;
+                    node = 0;
+                }
+                onChar(c);
+            }
+            return true;
+        }
+
+        private boolean onGlyph(char glyph) {
+            node = automaton.step(node, glyph);
+            for (int tag : automaton.outputs[node]) {
+                if (!listener.onTag(tag, currentWord())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void onChar(char c) {
+            if (c >= '\uE000' && c <= '\uF8FF') {
+                glyphPhase = 1;
+                selector = c;
+                return;
+            }
+            node = 0;
+            if (skipFormattingCode) {
+                skipFormattingCode = false;
+                return;
+            }
+            if (c == '\u00a7') {
+                skipFormattingCode = true;
+            } else if (c == ' ') {
+                if (word.length() > 0) {
+                    StringBuilder completed = word;
+                    word = lastWord;
+                    word.setLength(0);
+                    lastWord = completed;
+                }
+            } else if (c == '-' || c == '\'' || c == '_' || (Character.isLetterOrDigit(c) && c < 0x2000)) {
+                word.append(c);
+            }
+            // Anything else (surrogates, symbols) is dropped without splitting the word
+        }
+
+        private String currentWord() {
+            return word.length() > 0 ? word.toString() : lastWord.toString();
+        }
+    }
+
+    /**
+     * Aho-Corasick automaton over glyph selectors. Nodes store their children as parallel
+     * sorted arrays; tags are short and few, so lookups stay cheap without a full transition table.
+     */
+    private static class Automaton {
+        private static final int[] NO_OUTPUT = new int[0];
+
+        final char[][] keys;
+        final int[][] children;
+        final int[] failure;
+        final int[][] outputs;
+
+        Automaton(List<char[]> patterns) {
+            List<char[]> keyList = new ArrayList<>();
+            List<int[]> childList = new ArrayList<>();
+            List<int[]> outputList = new ArrayList<>();
+            keyList.add(new char[0]);
+            childList.add(new int[0]);
+            outputList.add(NO_OUTPUT);
+
+            for (int tag = 0; tag < patterns.size(); tag++) {
+                int node = 0;
+                for (char c : patterns.get(tag)) {
+                    int child = find(keyList.get(node), childList.get(node), c);
+                    if (child < 0) {
+                        child = keyList.size();
+                        keyList.add(new char[0]);
+                        childList.add(new int[0]);
+                        outputList.add(NO_OUTPUT);
+                        insert(keyList, childList, node, c, child);
+                    }
+                    node = child;
+                }
+                outputList.set(node, append(outputList.get(node), tag));
+            }
+
+            int size = keyList.size();
+            keys = keyList.toArray(new char[0][]);
+            children = childList.toArray(new int[0][]);
+            outputs = outputList.toArray(new int[0][]);
+            failure = new int[size];
+
+            // Breadth-first, so every failure target is complete before it is used
+            int[] queue = new int[size];
+            int head = 0;
+            int tail = 0;
+            for (int child : children[0]) {
+                queue[tail++] = child;
+            }
+            while (head < tail) {
+                int node = queue[head++];
+                for (int i = 0; i < keys[node].length; i++) {
+                    int child = children[node][i];
+                    int fallback = step(failure[node], keys[node][i]);
+                    failure[child] = fallback;
+                    if (outputs[fallback].length > 0) {
+                        int[] merged = Arrays.copyOf(outputs[child], outputs[child].length + outputs[fallback].length);
+                        System.arraycopy(outputs[fallback], 0, merged, outputs[child].length, outputs[fallback].length);
+                        outputs[child] = merged;
+                    }
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        int step(int node, char c) {
+            while (true) {
+                int child = find(keys[node], children[node], c);
+                if (child >= 0) {
+                    return child;
+                }
+                if (node == 0) {
+                    return 0;
+                }
+                node = failure[node];
+            }
+        }
+
+        private static int find(char[] nodeKeys, int[] nodeChildren, char c) {
+            int index = Arrays.binarySearch(nodeKeys, c);
+            return index >= 0 ? nodeChildren[index] : -1;
+        }
+
+        private static void insert(List<char[]> keyList, List<int[]> childList, int node, char c, int child) {
+            char[] oldKeys = keyList.get(node);
+            int[] oldChildren = childList.get(node);
+            int at = -Arrays.binarySearch(oldKeys, c) - 1;
+            char[] newKeys = new char[oldKeys.length + 1];
+            int[] newChildren = new int[oldChildren.length + 1];
+            System.arraycopy(oldKeys, 0, newKeys, 0, at);
+            System.arraycopy(oldChildren, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = child;
+            System.arraycopy(oldKeys, at, newKeys, at + 1, oldKeys.length - at);
+            System.arraycopy(oldChildren, at, newChildren, at + 1, oldChildren.length - at);
+            keyList.set(node, newKeys);
+            childList.set(node, newChildren);
+        }
+
+        private static int[] append(int[] values, int value) {
+            int[] result = Arrays.copyOf(values, values.length + 1);
+            result[values.length] = value;
+            return result;
+        }
+    }
+}
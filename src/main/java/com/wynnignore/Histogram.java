@@ -0,0 +1,80 @@
+package com.wynnignore;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram with power-of-two buckets: bucket b counts values from 2^(b-1) to 2^b - 1,
+ * and bucket 0 counts zeros. Recording is two atomic adds, so it is cheap enough for hot paths;
+ * percentiles are accurate to within a factor of two, which is enough to tell 50 ms from 500 ms.
+ */
+public final class Histogram {
+    private static final int BUCKETS = 64;
+
+    private final String unit;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram(String unit) {
+        this.unit = unit;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Records a value; negative values count as zero.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value));
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Another thread raised the maximum; retry against the new value
+        }
+    }
+
+    /**
+     * Copies the current counts. Values recorded while copying may or may not be included.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] = buckets.get(b);
+            count += counts[b];
+        }
+        return new Snapshot(count, sum.sum(), max.get(), counts);
+    }
+
+    public record Snapshot(long count, long sum, long max, long[] buckets) {
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Returns an upper bound for the given quantile (0 to 1): the top of the bucket it falls in,
+         * capped at the largest recorded value.
+         */
+        public long percentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank) {
+                    return Math.min(b == 0 ? 0 : (1L << b) - 1, max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.wynnignore;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events for the ignore command lifecycle, persistence, server switches and war scans.
+ * Only created while "Flight Recorder Events" is enabled in the config, and then only recorded when
+ * a flight recording is running, e.g. {@code -XX:StartFlightRecording} or {@code jcmd <pid> JFR.start}.
+ * Events show up under the WynnIgnore category in JDK Mission Control or {@code jfr print --categories WynnIgnore}.
+ */
+public final class IgnoreEvents {
+    private IgnoreEvents() {
+    }
+
+    /**
+     * Returns true if events should be created at all. Callers skip all event work when false.
+     */
+    public static boolean isEnabled() {
+        return ModConfig.getInstance().isFlightRecorderEvents();
+    }
+
+    @Category({"WynnIgnore", "Commands"})
+    @StackTrace(false)
+    public abstract static class CommandEvent extends Event {
+        @Label("Player")
+        public String player;
+
+        @Label("Lane")
+        public String lane;
+
+        @Label("Add")
+        @Description("True for an ignore, false for a removal")
+        public boolean add;
+
+        @Label("Retry")
+        @Description("How many times the command had been retried before this event")
+        public int retry;
+    }
+
+    @Name("wynnignore.CommandEnqueued")
+    @Label("Command Enqueued")
+    public static final class CommandEnqueued extends CommandEvent {
+        @Label("Result")
+        @Description("QUEUED, MERGED, IN_FLIGHT, CANCELLED or KEPT")
+        public String result;
+    }
+
+    @Name("wynnignore.CommandSent")
+    @Label("Command Sent")
+    public static final class CommandSent extends CommandEvent {
+        @Label("In Flight")
+        public int inFlight;
+
+        @Label("Command Delay")
+        @Timespan(Timespan.MILLISECONDS)
+        public long delayMs;
+    }
+
+    @Name("wynnignore.CommandConfirmed")
+    @Label("Command Confirmed")
+    public static final class CommandConfirmed extends CommandEvent {
+        @Label("Round Trip")
+        @Timespan(Timespan.MILLISECONDS)
+        public long rttMs;
+
+        @Label("Not Ignored")
+        @Description("The server answered that the player was not being ignored")
+        public boolean notIgnored;
+    }
+
+    @Name("wynnignore.CommandTimedOut")
+    @Label("Command Timed Out")
+    public static final class CommandTimedOut extends CommandEvent {
+        @Label("Timeout")
+        @Timespan(Timespan.MILLISECONDS)
+        public long timeoutMs;
+
+        @Label("Given Up")
+        @Description("No retries were left, so the command was dropped")
+        public boolean givenUp;
+    }
+
+    @Name("wynnignore.CommandRetried")
+    @Label("Command Retried")
+    public static final class CommandRetried extends CommandEvent {
+    }
+
+    @Category({"WynnIgnore", "Persistence"})
+    @StackTrace(false)
+    public abstract static class FileEvent extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Entries")
+        public int entries;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("wynnignore.Save")
+    @Label("Ignore List Save")
+    @Description("A full snapshot write")
+    public static final class Save extends FileEvent {
+    }
+
+    @Name("wynnignore.Load")
+    @Label("Ignore List Load")
+    @Description("Snapshot read plus journal replay")
+    public static final class Load extends FileEvent {
+        @Label("Journal Bytes")
+        @DataAmount
+        public long journalBytes;
+    }
+
+    @Name("wynnignore.ServerSwitch")
+    @Label("Server Switch")
+    @Category("WynnIgnore")
+    @StackTrace(false)
+    public static final class ServerSwitch extends Event {
+        @Label("Server")
+        public String server;
+
+        @Label("Path")
+        public String path;
+
+        @Label("Entries")
+        public int entries;
+
+        @Label("Waited For Load")
+        @Description("The profile was still loading in the background, so the switch waited for it")
+        public boolean waited;
+    }
+
+    @Name("wynnignore.WarScan")
+    @Label("War Scan")
+    @Description("Nearby player and disguise scan run by /warignore")
+    @Category("WynnIgnore")
+    @StackTrace(false)
+    public static final class WarScan extends Event {
+        @Label("Entities Scanned")
+        public int entitiesScanned;
+
+        @Label("Players Found")
+        public int playersFound;
+
+        @Label("Disguised Found")
+        public int disguisedFound;
+
+        @Label("Queued")
+        @Description("Players not already ignored, which were queued for a war ignore")
+        public int queued;
+    }
+
+    /**
+     * Fills the fields shared by all command events.
+     */
+    static <T extends CommandEvent> T describe(T event, String player, CommandQueue.Lane lane, boolean add, int retry) {
+        event.player = player;
+        event.lane = lane.name();
+        event.add = add;
+        event.retry = retry;
+        return event;
+    }
+}
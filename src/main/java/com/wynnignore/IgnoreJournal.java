@@ -0,0 +1,195 @@
+package com.wynnignore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of ignore list operations, stored next to the JSON snapshot.
+ *
+ * Layout: a 12-byte header ({@code MAGIC}, snapshot generation) followed by records of
+ * {@code [int length][int crc32][payload]}. The payload is the operation byte, the expiry
+ * timestamp for timed adds, and the UTF-8 player name. A record that is cut short or fails
+ * its checksum marks the end of the usable log; everything before it is kept.
+ */
+public class IgnoreJournal {
+    public static final byte OP_ADD = 1;
+    public static final byte OP_REMOVE = 2;
+    public static final byte OP_TIMED_ADD = 3;
+    public static final byte OP_EXPIRED = 4;
+
+    private static final int MAGIC = 0x574A4E31; // "WJN1"
+    private static final int HEADER_SIZE = 12;
+    private static final int RECORD_HEADER_SIZE = 8;
+    // Player names are at most 16 chars; anything much larger is corruption
+    private static final int MAX_PAYLOAD_SIZE = 256;
+
+    private final Path path;
+    // Generation of the snapshot this journal applies to, or -1 if the file has no valid header yet
+    private long generation = -1;
+
+    public record Entry(byte op, String name, long expiryTime) {
+    }
+
+    public interface Replayer {
+        void apply(Entry entry);
+    }
+
+    public IgnoreJournal(Path path) {
+        this.path = path;
+    }
+
+    public long size() {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Appends the entries in one write and forces them to disk.
+     * Starts a fresh journal first if the file does not belong to the given snapshot generation.
+     */
+    public void append(long snapshotGeneration, List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (generation != snapshotGeneration) {
+            reset(snapshotGeneration);
+        }
+
+        long start = System.nanoTime();
+        ByteBuffer buffer = ByteBuffer.allocate(entries.size() * (RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE));
+        CRC32 crc = new CRC32();
+        for (Entry entry : entries) {
+            byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+            int payloadSize = 1 + (entry.op() == OP_TIMED_ADD ? 8 : 0) + name.length;
+            if (payloadSize > MAX_PAYLOAD_SIZE) {
+                continue;
+            }
+            int payloadStart = buffer.position() + RECORD_HEADER_SIZE;
+            buffer.putInt(payloadSize);
+            buffer.putInt(0); // checksum placeholder
+            buffer.put(entry.op());
+            if (entry.op() == OP_TIMED_ADD) {
+                buffer.putLong(entry.expiryTime());
+            }
+            buffer.put(name);
+
+            crc.reset();
+            crc.update(buffer.array(), payloadStart, payloadSize);
+            buffer.putInt(payloadStart - 4, (int) crc.getValue());
+        }
+        buffer.flip();
+        int bytes = buffer.remaining();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Metrics.JOURNAL_APPEND.record(Metrics.microsSince(start));
+        Metrics.BYTES_WRITTEN.add(bytes);
+    }
+
+    /**
+     * Starts an empty journal for the given snapshot generation.
+     */
+    public void reset(long snapshotGeneration) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putLong(snapshotGeneration).flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(false);
+        }
+        generation = snapshotGeneration;
+    }
+
+    /**
+     * Removes the journal file, used when journaling is turned off.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+        generation = -1;
+    }
+
+    /**
+     * Replays all intact records written for the given snapshot generation and returns how many were applied.
+     * A journal from another generation is stale (a newer snapshot already contains it) and is ignored.
+     * A torn or corrupt tail is logged and truncated so later appends start from the last good record.
+     */
+    public int replay(long snapshotGeneration, Replayer replayer) throws IOException {
+        generation = -1;
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC) {
+            WynnIgnoreMod.LOGGER.warn("Ignoring journal {} with a missing or invalid header", path.getFileName());
+            return 0;
+        }
+        long fileGeneration = data.getLong();
+        if (fileGeneration != snapshotGeneration) {
+            WynnIgnoreMod.LOGGER.info("Skipping stale journal {} (generation {}, snapshot {})",
+                path.getFileName(), fileGeneration, snapshotGeneration);
+            return 0;
+        }
+
+        CRC32 crc = new CRC32();
+        int applied = 0;
+        int goodEnd = data.position();
+        while (data.remaining() >= RECORD_HEADER_SIZE) {
+            int payloadSize = data.getInt();
+            int checksum = data.getInt();
+            if (payloadSize < 2 || payloadSize > MAX_PAYLOAD_SIZE || payloadSize > data.remaining()) {
+                break;
+            }
+            int payloadStart = data.position();
+            crc.reset();
+            crc.update(data.array(), payloadStart, payloadSize);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            byte op = data.get();
+            long expiryTime = 0;
+            if (op == OP_TIMED_ADD) {
+                if (payloadSize < 10) {
+                    break;
+                }
+                expiryTime = data.getLong();
+            }
+            int nameLength = payloadStart + payloadSize - data.position();
+            String name = new String(data.array(), data.position(), nameLength, StandardCharsets.UTF_8);
+            data.position(payloadStart + payloadSize);
+
+            replayer.apply(new Entry(op, name, expiryTime));
+            applied++;
+            goodEnd = data.position();
+        }
+
+        if (goodEnd < data.limit()) {
+            WynnIgnoreMod.LOGGER.warn("Dropped {} bytes of torn or corrupt journal data from {}",
+                data.limit() - goodEnd, path.getFileName());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(goodEnd);
+                channel.force(false);
+            }
+        }
+
+        generation = fileGeneration;
+        return applied;
+    }
+}
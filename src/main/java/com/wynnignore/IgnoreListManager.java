@@ -2,89 +2,200 @@ package com.wynnignore;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import net.fabricmc.loader.api.FabricLoader;
+import com.google.gson.JsonParseException;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class IgnoreListManager {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final int CURRENT_DATA_VERSION = 2;
-    private final Path configDir;
-    private Path configPath;
+    private static final int CURRENT_DATA_VERSION = 3;
+    // Upper bound on how long a change waits before it is written to disk
+    private static final long SAVE_DELAY_MS = 1000;
+    // Journal size at which it is folded back into a fresh snapshot
+    private static final long JOURNAL_COMPACT_BYTES = 64 * 1024;
+    private final Path configPath;
+    private final IgnoreJournal journal;
 
-    private final Set<String> ignoredPlayers = new HashSet<>();
+    // Coalesces mutations into one background write per delay window
+    private final WriteBehindSaver saver = new WriteBehindSaver("WynnIgnore-IO", SAVE_DELAY_MS, this::persist);
+    // Serializes file writes between the I/O thread and direct save() calls
+    private final Object fileLock = new Object();
+    // Operations not yet appended to the journal, in the order they happened
+    private final List<IgnoreJournal.Entry> pendingJournal = new ArrayList<>();
+    // Generation of the snapshot on disk; the journal is only replayed on top of the matching generation
+    private long journalGeneration = 0;
+    // Set when the next write must be a full snapshot (migration, oversized journal, failed write)
+    private boolean snapshotRequested = false;
+
+    // Concurrent so lookups from the network, render and I/O threads never lock or see a torn table.
+    // Every mutation still goes through a synchronized method, which keeps the two maps, the expiry
+    // queue and the journal consistent with each other.
+    private final Set<String> ignoredPlayers = ConcurrentHashMap.newKeySet();
     // Maps player name to expiry timestamp (when they should be auto-unignored)
-    private final Map<String, Long> timedIgnores = new HashMap<>();
+    private final Map<String, Long> timedIgnores = new ConcurrentHashMap<>();
     // Track players currently being processed to avoid duplicate queue entries
     private final Set<String> pendingUnignores = new HashSet<>();
+    // Timed ignores ordered by expiry so the expiry check only has to look at the head.
+    // Entries are invalidated lazily: an entry whose timestamp no longer matches timedIgnores is skipped.
+    private final PriorityQueue<ExpiryEntry> expiryQueue = new PriorityQueue<>(Comparator.comparingLong(ExpiryEntry::expiryTime));
+    // Ignored players in the order they were added, oldest first. Both snapshot formats store names in this order.
+    // Removals are not searched for here; stale and repeated names are skipped until compactAddOrder drops them.
+    private final List<String> addOrder = new ArrayList<>();
+    private int staleAddOrder = 0;
+    // Bumped by every mutation; the published snapshot is rebuilt only when it falls behind
+    private volatile long version = 0;
+    private volatile IgnoreListSnapshot snapshot = IgnoreListSnapshot.EMPTY;
+    // Built on the first completion request after a load, then updated by every change
+    private volatile NameIndex nameIndex;
 
-    public IgnoreListManager() {
-        this.configDir = FabricLoader.getInstance().getConfigDir();
-        this.configPath = configDir.resolve("wynnignore.json");
+    /**
+     * Stores the ignore lists in the given directory instead of the game's config directory.
+     */
+    IgnoreListManager(Path configDir) {
+        this(configDir, "wynnignore.json");
     }
 
     /**
-     * Switches the ignore list to a different server's data file.
-     * Saves current data, clears state, and loads the new server's data.
+     * Stores one server's ignore list in the given file of the config directory.
      */
-    public void setServer(String serverType) {
-        save();
+    IgnoreListManager(Path configDir, String fileName) {
+        this.configPath = configDir.resolve(fileName);
+        this.journal = new IgnoreJournal(journalPathFor(configPath));
+    }
 
-        if ("beta".equals(serverType)) {
-            this.configPath = configDir.resolve("wynnignore_beta.json");
-        } else {
-            this.configPath = configDir.resolve("wynnignore.json");
-        }
+    /**
+     * The snapshot file of this list in JSON form; the binary snapshot and journal sit next to it.
+     */
+    public Path getConfigPath() {
+        return configPath;
+    }
 
-        ignoredPlayers.clear();
-        timedIgnores.clear();
+    /**
+     * Called when this list becomes the active one. Timed unignores it queued while it was last active may
+     * have been sent to another server since, so the expiry check is allowed to queue them again. The expiry
+     * check dropped their queue entries when it queued them, so the queue is rebuilt from the timed ignores.
+     */
+    public synchronized void onActivated() {
         pendingUnignores.clear();
-        load();
-
-        WynnIgnoreMod.LOGGER.info("Switched to {} server ignore list", serverType);
+        rebuildExpiryQueue();
+        ExpiryEntry head = expiryQueue.peek();
+        if (head != null) {
+            CommandHandler.scheduleExpiryCheck(head.expiryTime());
+        }
     }
 
-    public void addPlayer(String name) {
+    /**
+     * Ignores the player permanently. A timed ignore of the player becomes permanent, even one that has
+     * expired and whose unignore is queued, so the expiry check never queues it again.
+     */
+    public synchronized void addPlayer(String name) {
         String lowerName = name.toLowerCase();
-        if (ignoredPlayers.add(lowerName)) {
-            save();
+        boolean added = ignoredPlayers.add(lowerName);
+        if (added) {
+            addOrder.add(lowerName);
+        }
+        boolean wasTimed = timedIgnores.remove(lowerName) != null;
+        if (wasTimed) {
+            pendingUnignores.remove(lowerName);
+            compactExpiryQueue();
+        }
+        if (added || wasTimed) {
+            recordChange(IgnoreJournal.OP_ADD, lowerName, 0);
             WynnIgnoreMod.LOGGER.info("Added {} to ignore list", name);
         }
     }
 
-    public void removePlayer(String name) {
+    public synchronized void removePlayer(String name) {
         String lowerName = name.toLowerCase();
         boolean removed = ignoredPlayers.remove(lowerName);
-        timedIgnores.remove(lowerName);
+        boolean wasTimed = timedIgnores.remove(lowerName) != null;
+        if (wasTimed) {
+            compactExpiryQueue();
+        }
         pendingUnignores.remove(lowerName);
         if (removed) {
-            save();
+            staleAddOrder++;
+            compactAddOrder();
+        }
+        if (removed || wasTimed) {
+            recordChange(IgnoreJournal.OP_REMOVE, lowerName, 0);
+        }
+        if (removed) {
             WynnIgnoreMod.LOGGER.info("Removed {} from ignore list", name);
         }
     }
 
+    /**
+     * Returns the ignored players as an immutable set. The same set is returned until the list changes.
+     */
     public Set<String> getIgnoredPlayers() {
-        return Collections.unmodifiableSet(new HashSet<>(ignoredPlayers));
+        return getSnapshot().getPlayers();
+    }
+
+    /**
+     * Returns an immutable view of the current list, rebuilt only if a mutation happened since the last call.
+     */
+    public IgnoreListSnapshot getSnapshot() {
+        IgnoreListSnapshot current = snapshot;
+        if (current.getVersion() == version) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot.getVersion() != version) {
+                if (staleAddOrder > 0) {
+                    rebuildAddOrder();
+                }
+                snapshot = new IgnoreListSnapshot(version, addOrder, timedIgnores);
+            }
+            return snapshot;
+        }
     }
 
     public boolean isIgnored(String name) {
         return ignoredPlayers.contains(name.toLowerCase());
     }
 
+    /**
+     * Returns the prefix index used for completions, building it from the current snapshot on first use.
+     * The build runs outside the manager lock and is retried if the list changed meanwhile.
+     */
+    public NameIndex getNameIndex() {
+        NameIndex index = nameIndex;
+        while (index == null) {
+            IgnoreListSnapshot base = getSnapshot();
+            NameIndex built = NameIndex.build(base);
+            synchronized (this) {
+                if (nameIndex == null && version == base.getVersion()) {
+                    nameIndex = built;
+                }
+                index = nameIndex;
+            }
+        }
+        return index;
+    }
+
     /**
      * Adds a timed ignore with the specified duration in minutes.
      */
-    public void addTimedIgnore(String name, int durationMinutes) {
+    public synchronized void addTimedIgnore(String name, int durationMinutes) {
         String lowerName = name.toLowerCase();
-        ignoredPlayers.add(lowerName);
+        if (ignoredPlayers.add(lowerName)) {
+            addOrder.add(lowerName);
+        }
         long expiryTime = System.currentTimeMillis() + (durationMinutes * 60 * 1000L);
         timedIgnores.put(lowerName, expiryTime);
-        save();
+        pendingUnignores.remove(lowerName);
+        expiryQueue.add(new ExpiryEntry(lowerName, expiryTime));
+        recordChange(IgnoreJournal.OP_TIMED_ADD, lowerName, expiryTime);
+        CommandHandler.scheduleExpiryCheck(expiryTime);
         WynnIgnoreMod.LOGGER.info("Timed-ignored {} (will auto-unignore in {} minutes)", name, durationMinutes);
     }
 
@@ -97,23 +208,31 @@ public class IgnoreListManager {
 
     /**
      * Checks for expired timed ignores and queues them for removal.
-     * Called on tick and on world join.
+     * Called by the scheduler when the next expiry is due and on world join. Only the head of the expiry queue is inspected
+     * when nothing is due, so the check stays cheap however many timed ignores exist.
      */
-    public void checkTimedIgnoreExpiry() {
-        if (timedIgnores.isEmpty()) {
+    public synchronized void checkTimedIgnoreExpiry() {
+        ExpiryEntry head = expiryQueue.peek();
+        if (head == null) {
             return;
         }
 
         long currentTime = System.currentTimeMillis();
-        List<String> toUnignore = new ArrayList<>();
+        if (head.expiryTime() > currentTime) {
+            return;
+        }
 
-        for (Map.Entry<String, Long> entry : timedIgnores.entrySet()) {
-            String playerName = entry.getKey();
-            // Check if expired and not already pending
-            if (currentTime >= entry.getValue() && !pendingUnignores.contains(playerName)) {
-                toUnignore.add(playerName);
-                pendingUnignores.add(playerName);
+        List<String> toUnignore = new ArrayList<>();
+        while ((head = expiryQueue.peek()) != null && head.expiryTime() <= currentTime) {
+            expiryQueue.poll();
+            String playerName = head.name();
+            // Skip entries that were removed or re-timed since they were queued
+            Long expiry = timedIgnores.get(playerName);
+            if (expiry == null || expiry != head.expiryTime() || pendingUnignores.contains(playerName)) {
+                continue;
             }
+            toUnignore.add(playerName);
+            pendingUnignores.add(playerName);
         }
 
         if (!toUnignore.isEmpty()) {
@@ -121,15 +240,72 @@ public class IgnoreListManager {
         }
     }
 
+    /**
+     * Returns the earliest queued expiry time, or Long.MAX_VALUE if there is none.
+     * The entry may have been removed or re-timed since, so callers treat it as a hint to check again.
+     */
+    public synchronized long getNextExpiryTime() {
+        ExpiryEntry head = expiryQueue.peek();
+        return head != null ? head.expiryTime() : Long.MAX_VALUE;
+    }
+
     /**
      * Called when a timed unignore has been confirmed by the server.
      */
-    public void onTimedUnignoreComplete(String name) {
+    public synchronized void onTimedUnignoreComplete(String name) {
         String lowerName = name.toLowerCase();
         timedIgnores.remove(lowerName);
-        ignoredPlayers.remove(lowerName);
+        if (ignoredPlayers.remove(lowerName)) {
+            staleAddOrder++;
+            compactAddOrder();
+        }
         pendingUnignores.remove(lowerName);
-        save();
+        compactExpiryQueue();
+        recordChange(IgnoreJournal.OP_EXPIRED, lowerName, 0);
+    }
+
+    /**
+     * Rebuilds the expiry queue from timedIgnores once stale entries outnumber live ones,
+     * so removals never have to search the heap.
+     */
+    private void compactExpiryQueue() {
+        if (expiryQueue.size() > 2 * timedIgnores.size() + 64) {
+            rebuildExpiryQueue();
+        }
+    }
+
+    /**
+     * Rebuilds the add order once stale entries outnumber live ones, like the expiry queue.
+     */
+    private void compactAddOrder() {
+        if (staleAddOrder > addOrder.size() / 2 + 64) {
+            rebuildAddOrder();
+        }
+    }
+
+    /**
+     * Drops names that are no longer ignored and keeps only the latest add of names added more than once.
+     */
+    private void rebuildAddOrder() {
+        Set<String> seen = new HashSet<>();
+        List<String> live = new ArrayList<>(ignoredPlayers.size());
+        for (int i = addOrder.size() - 1; i >= 0; i--) {
+            String name = addOrder.get(i);
+            if (ignoredPlayers.contains(name) && seen.add(name)) {
+                live.add(name);
+            }
+        }
+        Collections.reverse(live);
+        addOrder.clear();
+        addOrder.addAll(live);
+        staleAddOrder = 0;
+    }
+
+    private void rebuildExpiryQueue() {
+        expiryQueue.clear();
+        for (Map.Entry<String, Long> entry : timedIgnores.entrySet()) {
+            expiryQueue.add(new ExpiryEntry(entry.getKey(), entry.getValue()));
+        }
     }
 
     /**
@@ -151,73 +327,419 @@ public class IgnoreListManager {
         if (expiry == null) {
             return -1;
         }
-        long remaining = expiry - System.currentTimeMillis();
-        if (remaining <= 0) {
-            return 0;
+        return IgnoreListSnapshot.remainingMinutes(expiry, System.currentTimeMillis());
+    }
+
+    private void recordChange(byte op, String name, long expiryTime) {
+        version++;
+        NameIndex index = nameIndex;
+        if (index != null) {
+            switch (op) {
+                case IgnoreJournal.OP_ADD -> index.put(name, 0);
+                case IgnoreJournal.OP_TIMED_ADD -> index.put(name, expiryTime);
+                default -> index.remove(name);
+            }
+        }
+        if (ModConfig.getInstance().isJournalPersistence()) {
+            pendingJournal.add(new IgnoreJournal.Entry(op, name, expiryTime));
+        } else {
+            // Nothing to buffer: the change goes out in a full snapshot, even if journaling is turned back on first
+            snapshotRequested = true;
+        }
+        saver.markDirty();
+    }
+
+    private static Path journalPathFor(Path jsonPath) {
+        return withExtension(jsonPath, ".journal");
+    }
+
+    private static Path binaryPathFor(Path jsonPath) {
+        return withExtension(jsonPath, ".bin");
+    }
+
+    private static Path withExtension(Path jsonPath, String extension) {
+        String fileName = jsonPath.getFileName().toString();
+        if (fileName.endsWith(".json")) {
+            fileName = fileName.substring(0, fileName.length() - ".json".length());
+        }
+        return jsonPath.resolveSibling(fileName + extension);
+    }
+
+    /**
+     * Write task run by the I/O thread. In journal mode, appends the pending operations and only
+     * rewrites the snapshot once the journal grows past its threshold; otherwise writes a full snapshot.
+     */
+    private void persist() {
+        if (!ModConfig.getInstance().isJournalPersistence()) {
+            save();
+            return;
+        }
+
+        synchronized (fileLock) {
+            List<IgnoreJournal.Entry> entries;
+            IgnoreJournal target;
+            long generation;
+            boolean needsSnapshot;
+            synchronized (this) {
+                entries = new ArrayList<>(pendingJournal);
+                pendingJournal.clear();
+                target = journal;
+                generation = journalGeneration;
+                needsSnapshot = snapshotRequested;
+            }
+
+            if (!needsSnapshot) {
+                try {
+                    target.append(generation, entries);
+                    if (target.size() <= JOURNAL_COMPACT_BYTES) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    WynnIgnoreMod.LOGGER.error("Failed to append to ignore list journal, writing a full snapshot", e);
+                }
+            }
+            save();
         }
-        return remaining / (60 * 1000);
     }
 
+    /**
+     * Writes the current list to disk immediately as a new snapshot generation and starts an empty journal.
+     * Mutations normally go through the write-behind saver instead.
+     * The snapshot is written in the configured format and replaces any copy in the other format.
+     */
     public void save() {
-        try {
+        synchronized (fileLock) {
+            List<String> players;
+            Map<String, Long> timed;
+            long generation;
+            Path jsonPath;
+            IgnoreJournal target;
+            synchronized (this) {
+                // Written oldest first so the add order survives a restart
+                if (staleAddOrder > 0) {
+                    rebuildAddOrder();
+                }
+                players = new ArrayList<>(addOrder);
+                timed = new HashMap<>(timedIgnores);
+                generation = journalGeneration + 1;
+                jsonPath = configPath;
+                target = journal;
+                // Everything pending is part of this snapshot
+                pendingJournal.clear();
+                snapshotRequested = false;
+            }
+
+            ModConfig config = ModConfig.getInstance();
+            boolean binary = config.isBinarySnapshots();
+            try {
+                Path snapshotPath = binary ? binaryPathFor(jsonPath) : jsonPath;
+                IgnoreEvents.Save event = IgnoreEvents.isEnabled() ? new IgnoreEvents.Save() : null;
+                if (event != null) {
+                    event.begin();
+                }
+                long start = System.nanoTime();
+                writeSnapshot(snapshotPath, generation, players, timed);
+                Metrics.SNAPSHOT_WRITE.record(Metrics.microsSince(start));
+                long bytes = sizeOf(snapshotPath);
+                Metrics.BYTES_WRITTEN.add(bytes);
+                if (event != null) {
+                    event.path = snapshotPath.toString();
+                    event.entries = players.size();
+                    event.bytes = bytes;
+                    event.commit();
+                }
+                // Keep a single format on disk so load never picks up a stale copy
+                Files.deleteIfExists(binary ? jsonPath : binaryPathFor(jsonPath));
+            } catch (IOException e) {
+                WynnIgnoreMod.LOGGER.error("Failed to save ignore list", e);
+                synchronized (this) {
+                    snapshotRequested = true;
+                }
+                return;
+            }
+
+            synchronized (this) {
+                journalGeneration = generation;
+            }
+            try {
+                if (config.isJournalPersistence()) {
+                    target.reset(generation);
+                } else {
+                    target.delete();
+                }
+            } catch (IOException e) {
+                // The stale journal is skipped on load because its generation no longer matches
+                WynnIgnoreMod.LOGGER.warn("Failed to reset ignore list journal", e);
+            }
+        }
+    }
+
+    /**
+     * Writes any pending changes and blocks until they are on disk.
+     * Called on disconnect, and usable by tests to wait for durability.
+     */
+    public void flush() {
+        saver.flush();
+    }
+
+    /**
+     * Starts writing any pending changes on the I/O thread without waiting for them.
+     */
+    public void flushAsync() {
+        saver.flushAsync();
+    }
+
+    /**
+     * Flushes pending changes and stops the background I/O thread. Called on client shutdown
+     * and when the list is dropped from memory.
+     */
+    public void shutdown() {
+        saver.shutdown();
+    }
+
+    /**
+     * Loads the snapshot for the current server, then replays the journal written since it.
+     */
+    public synchronized void load() {
+        IgnoreEvents.Load event = IgnoreEvents.isEnabled() ? new IgnoreEvents.Load() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long start = System.nanoTime();
+        journalGeneration = 0;
+        nameIndex = null;
+        long snapshotBytes = loadSnapshot();
+        long journalBytes = replayJournal();
+        rebuildExpiryQueue();
+        compactAddOrder();
+        version++;
+        Metrics.LOAD.record(Metrics.microsSince(start));
+        Metrics.BYTES_READ.add(snapshotBytes + journalBytes);
+        if (event != null) {
+            event.path = configPath.toString();
+            event.entries = ignoredPlayers.size();
+            event.bytes = snapshotBytes;
+            event.journalBytes = journalBytes;
+            event.commit();
+        }
+        ExpiryEntry head = expiryQueue.peek();
+        if (head != null) {
+            CommandHandler.scheduleExpiryCheck(head.expiryTime());
+        }
+        WynnIgnoreMod.LOGGER.info("Loaded {} ignored players ({} timed)",
+            ignoredPlayers.size(), timedIgnores.size());
+    }
+
+    /**
+     * Loads the newest snapshot for the current server and returns its size in bytes, or 0 if none was read.
+     */
+    private long loadSnapshot() {
+        Path binaryPath = binaryPathFor(configPath);
+        boolean hasBinary = Files.exists(binaryPath);
+        boolean hasJson = Files.exists(configPath);
+        if (hasBinary && hasJson) {
+            // Only left behind by an interrupted format switch; the newer file wins
+            try {
+                hasBinary = Files.getLastModifiedTime(binaryPath).compareTo(Files.getLastModifiedTime(configPath)) >= 0;
+            } catch (IOException e) {
+                hasBinary = false;
+            }
+        }
+
+        if (hasBinary) {
+            try {
+                return onSnapshotLoaded(binaryPath, readSnapshotInOrder(binaryPath));
+            } catch (Exception e) {
+                WynnIgnoreMod.LOGGER.error("Failed to load binary ignore list, falling back to JSON", e);
+                ignoredPlayers.clear();
+                timedIgnores.clear();
+                addOrder.clear();
+            }
+        }
+
+        if (hasJson) {
+            try {
+                return onSnapshotLoaded(configPath, readSnapshotInOrder(configPath));
+            } catch (Exception e) {
+                WynnIgnoreMod.LOGGER.error("Failed to load ignore list", e);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Reads a snapshot into the add order, keeping the order of the file, and then into the lookup set.
+     */
+    private SnapshotInfo readSnapshotInOrder(Path path) throws IOException {
+        SnapshotInfo info = readSnapshot(path, addOrder, timedIgnores);
+        ignoredPlayers.addAll(addOrder);
+        // A hand-edited file may list a name twice
+        staleAddOrder = addOrder.size() - ignoredPlayers.size();
+        return info;
+    }
+
+    private long onSnapshotLoaded(Path path, SnapshotInfo info) {
+        journalGeneration = info.generation();
+        // Rewrite older versions (including migrated v1 data) and files in the other format
+        boolean binary = isBinarySnapshot(path);
+        int currentVersion = binary ? BinarySnapshot.VERSION : CURRENT_DATA_VERSION;
+        if (info.version() < currentVersion || binary != ModConfig.getInstance().isBinarySnapshots()) {
+            snapshotRequested = true;
+            saver.markDirty();
+        }
+        return sizeOf(path);
+    }
+
+    /**
+     * Converts a snapshot between the JSON and binary formats. The format of each file follows
+     * its extension ({@code .bin} for binary, anything else for JSON).
+     */
+    public static void convertSnapshot(Path source, Path target) throws IOException {
+        // Linked so the add order carries over
+        Set<String> players = new LinkedHashSet<>();
+        Map<String, Long> timed = new HashMap<>();
+        SnapshotInfo info = readSnapshot(source, players, timed);
+        writeSnapshot(target, info.generation(), players, timed);
+    }
+
+    private static SnapshotInfo readSnapshot(Path path, Collection<String> players, Map<String, Long> timed) throws IOException {
+        if (isBinarySnapshot(path)) {
+            BinarySnapshot.Header header = BinarySnapshot.read(path, players, timed);
+            return new SnapshotInfo(header.generation(), header.version());
+        }
+
+        SaveData data;
+        try (Reader reader = Files.newBufferedReader(path)) {
+            data = GSON.fromJson(reader, SaveData.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Malformed ignore list " + path.getFileName(), e);
+        }
+        if (data == null) {
+            return new SnapshotInfo(0, CURRENT_DATA_VERSION);
+        }
+
+        if (data.ignoredPlayers != null) {
+            for (String name : data.ignoredPlayers) {
+                players.add(name.toLowerCase());
+            }
+        }
+
+        // Handle data based on version
+        if (data.version >= 2) {
+            // Current format: timedIgnores contains expiry timestamps
+            if (data.timedIgnores != null) {
+                timed.putAll(data.timedIgnores);
+            }
+        } else if (data.warIgnoredPlayers != null && !data.warIgnoredPlayers.isEmpty()) {
+            // Version 1 or unversioned: warIgnoredPlayers contains start timestamps
+            // Migrate to new format
+            long durationMs = ModConfig.getInstance().getWarIgnoreDurationMs();
+            for (Map.Entry<String, Long> entry : data.warIgnoredPlayers.entrySet()) {
+                long expiryTime = entry.getValue() + durationMs;
+                timed.put(entry.getKey(), expiryTime);
+            }
+            WynnIgnoreMod.LOGGER.info("Migrated {} war-ignored players to new timed ignore format", timed.size());
+        }
+        return new SnapshotInfo(data.journalGeneration, data.version);
+    }
+
+    /**
+     * Writes a snapshot through a temp file that is then moved into place atomically,
+     * so a crash mid-write cannot leave a truncated list.
+     */
+    private static void writeSnapshot(Path path, long generation, Collection<String> players, Map<String, Long> timed)
+            throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        if (isBinarySnapshot(path)) {
+            BinarySnapshot.write(tempPath, generation, players, timed);
+        } else {
             SaveData data = new SaveData();
             data.version = CURRENT_DATA_VERSION;
-            data.ignoredPlayers = new ArrayList<>(ignoredPlayers);
-            data.timedIgnores = new HashMap<>(timedIgnores);
-
-            try (Writer writer = Files.newBufferedWriter(configPath)) {
+            data.journalGeneration = generation;
+            data.ignoredPlayers = players instanceof List<String> list ? list : new ArrayList<>(players);
+            data.timedIgnores = timed;
+            try (Writer writer = Files.newBufferedWriter(tempPath)) {
                 GSON.toJson(data, writer);
             }
+        }
+
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * File size for metrics, or 0 if it cannot be read.
+     */
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
         } catch (IOException e) {
-            WynnIgnoreMod.LOGGER.error("Failed to save ignore list", e);
+            return 0;
         }
     }
 
-    public void load() {
-        if (!Files.exists(configPath)) {
-            return;
+    private static boolean isBinarySnapshot(Path path) {
+        return path.getFileName().toString().endsWith(".bin");
+    }
+
+    /**
+     * Replays the journal and returns its size in bytes.
+     */
+    private long replayJournal() {
+        try {
+            int applied = journal.replay(journalGeneration, this::applyJournalEntry);
+            if (applied > 0) {
+                WynnIgnoreMod.LOGGER.info("Replayed {} ignore list journal entries", applied);
+            }
+            long journalBytes = journal.size();
+            if (journalBytes > JOURNAL_COMPACT_BYTES) {
+                snapshotRequested = true;
+                saver.markDirty();
+            }
+            return journalBytes;
+        } catch (IOException e) {
+            WynnIgnoreMod.LOGGER.error("Failed to read ignore list journal", e);
+            return 0;
         }
+    }
 
-        try (Reader reader = Files.newBufferedReader(configPath)) {
-            SaveData data = GSON.fromJson(reader, SaveData.class);
-            if (data != null) {
-                if (data.ignoredPlayers != null) {
-                    ignoredPlayers.clear();
-                    for (String name : data.ignoredPlayers) {
-                        ignoredPlayers.add(name.toLowerCase());
-                    }
+    private void applyJournalEntry(IgnoreJournal.Entry entry) {
+        String name = entry.name();
+        switch (entry.op()) {
+            case IgnoreJournal.OP_ADD -> {
+                if (ignoredPlayers.add(name)) {
+                    addOrder.add(name);
                 }
-
-                // Handle data based on version
-                if (data.version >= 2) {
-                    // Current format: timedIgnores contains expiry timestamps
-                    if (data.timedIgnores != null) {
-                        timedIgnores.clear();
-                        timedIgnores.putAll(data.timedIgnores);
-                    }
-                } else if (data.warIgnoredPlayers != null && !data.warIgnoredPlayers.isEmpty()) {
-                    // Version 1 or unversioned: warIgnoredPlayers contains start timestamps
-                    // Migrate to new format
-                    timedIgnores.clear();
-                    long durationMs = ModConfig.getInstance().getWarIgnoreDurationMs();
-                    for (Map.Entry<String, Long> entry : data.warIgnoredPlayers.entrySet()) {
-                        long expiryTime = entry.getValue() + durationMs;
-                        timedIgnores.put(entry.getKey(), expiryTime);
-                    }
-                    WynnIgnoreMod.LOGGER.info("Migrated {} war-ignored players to new timed ignore format", timedIgnores.size());
-                    // Save immediately to persist migration
-                    save();
+                timedIgnores.remove(name);
+            }
+            case IgnoreJournal.OP_TIMED_ADD -> {
+                if (ignoredPlayers.add(name)) {
+                    addOrder.add(name);
                 }
+                timedIgnores.put(name, entry.expiryTime());
             }
-            WynnIgnoreMod.LOGGER.info("Loaded {} ignored players ({} timed)",
-                ignoredPlayers.size(), timedIgnores.size());
-        } catch (Exception e) {
-            WynnIgnoreMod.LOGGER.error("Failed to load ignore list", e);
+            case IgnoreJournal.OP_REMOVE, IgnoreJournal.OP_EXPIRED -> {
+                if (ignoredPlayers.remove(name)) {
+                    staleAddOrder++;
+                }
+                timedIgnores.remove(name);
+            }
+            default -> WynnIgnoreMod.LOGGER.warn("Skipping unknown journal operation {}", entry.op());
         }
     }
 
+    private record ExpiryEntry(String name, long expiryTime) {
+    }
+
+    private record SnapshotInfo(long generation, int version) {
+    }
+
     private static class SaveData {
         int version = 1;
+        long journalGeneration;
         List<String> ignoredPlayers;
         Map<String, Long> timedIgnores;
         // Old format for migration (version 1)
@@ -0,0 +1,190 @@
+package com.wynnignore;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable view of the ignore list at one version. The manager hands out the same instance until a
+ * mutation bumps its version, so callers such as {@code /ignore list} can page through it without
+ * copying. Each ordered and filtered view is built on first use and then kept.
+ */
+public final class IgnoreListSnapshot {
+    static final IgnoreListSnapshot EMPTY = new IgnoreListSnapshot(0, List.of(), Map.of());
+
+    private final long version;
+    private final Set<String> players;
+    // Oldest first
+    private final List<String> addOrder;
+    private final Map<String, Long> timedIgnores;
+    // Built lazily, indexed by order and filter; a race just builds an equal list twice
+    private final AtomicReferenceArray<List<String>> views = new AtomicReferenceArray<>(Order.values().length * Filter.values().length);
+    private volatile List<Timed> byExpiry;
+
+    /**
+     * Order in which a view lists players.
+     */
+    public enum Order {
+        NAME,
+        // Timed ignores by soonest expiry, then permanent ones by name
+        EXPIRY,
+        NEWEST
+    }
+
+    /**
+     * Which players a view includes.
+     */
+    public enum Filter {
+        ALL,
+        TIMED,
+        PERMANENT
+    }
+
+    /**
+     * Takes a snapshot of players in the order they were added, without repeats.
+     */
+    IgnoreListSnapshot(long version, List<String> addOrder, Map<String, Long> timedIgnores) {
+        this.version = version;
+        this.addOrder = List.copyOf(addOrder);
+        this.players = Set.copyOf(this.addOrder);
+        this.timedIgnores = Map.copyOf(timedIgnores);
+    }
+
+    /**
+     * Version of the manager this snapshot was taken at.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Lowercased names of all ignored players, timed or not.
+     */
+    public Set<String> getPlayers() {
+        return players;
+    }
+
+    public int size() {
+        return players.size();
+    }
+
+    public boolean isEmpty() {
+        return players.isEmpty();
+    }
+
+    public boolean isIgnored(String name) {
+        return players.contains(name.toLowerCase());
+    }
+
+    /**
+     * Expiry time of each timed ignore by lowercased name.
+     */
+    public Map<String, Long> getTimedIgnores() {
+        return timedIgnores;
+    }
+
+    /**
+     * Gets the remaining time in minutes for a timed ignore, or -1 if not timed.
+     */
+    public long getRemainingMinutes(String name) {
+        Long expiry = timedIgnores.get(name.toLowerCase());
+        return expiry != null ? remainingMinutes(expiry, System.currentTimeMillis()) : -1;
+    }
+
+    /**
+     * All ignored players in alphabetical order.
+     */
+    public List<String> getSorted() {
+        return getView(Order.NAME, Filter.ALL);
+    }
+
+    /**
+     * The players matching the filter in the given order. Repeated calls on the same snapshot return the same list.
+     */
+    public List<String> getView(Order order, Filter filter) {
+        int slot = order.ordinal() * Filter.values().length + filter.ordinal();
+        List<String> view = views.get(slot);
+        if (view == null) {
+            view = buildView(order, filter);
+            views.set(slot, view);
+        }
+        return view;
+    }
+
+    private List<String> buildView(Order order, Filter filter) {
+        if (order == Order.EXPIRY && filter != Filter.PERMANENT) {
+            List<String> names = new ArrayList<>(filter == Filter.ALL ? players.size() : timedIgnores.size());
+            for (Timed timed : getByExpiry()) {
+                names.add(timed.name());
+            }
+            if (filter == Filter.ALL) {
+                names.addAll(getView(Order.NAME, Filter.PERMANENT));
+            }
+            return List.copyOf(names);
+        }
+
+        List<String> names;
+        if (order == Order.NEWEST) {
+            names = new ArrayList<>(addOrder.size());
+            for (int i = addOrder.size() - 1; i >= 0; i--) {
+                names.add(addOrder.get(i));
+            }
+        } else if (filter == Filter.ALL) {
+            names = new ArrayList<>(addOrder);
+            names.sort(null);
+            return List.copyOf(names);
+        } else {
+            // Filtered name order comes from the full sorted view instead of sorting again
+            names = getSorted();
+        }
+
+        if (filter == Filter.ALL) {
+            return List.copyOf(names);
+        }
+        boolean timed = filter == Filter.TIMED;
+        List<String> filtered = new ArrayList<>(timed ? timedIgnores.size() : players.size() - timedIgnores.size());
+        for (String name : names) {
+            if (timedIgnores.containsKey(name) == timed) {
+                filtered.add(name);
+            }
+        }
+        return List.copyOf(filtered);
+    }
+
+    /**
+     * Timed ignores ordered by expiry, soonest first.
+     */
+    public List<Timed> getByExpiry() {
+        List<Timed> result = byExpiry;
+        if (result == null) {
+            List<Timed> entries = new ArrayList<>(timedIgnores.size());
+            for (Map.Entry<String, Long> entry : timedIgnores.entrySet()) {
+                entries.add(new Timed(entry.getKey(), entry.getValue()));
+            }
+            entries.sort(Comparator.comparingLong(Timed::expiryTime).thenComparing(Timed::name));
+            result = List.copyOf(entries);
+            byExpiry = result;
+        }
+        return result;
+    }
+
+    /**
+     * Whole minutes left until an expiry time, or 0 once it has passed.
+     */
+    static long remainingMinutes(long expiryTime, long now) {
+        long remaining = expiryTime - now;
+        if (remaining <= 0) {
+            return 0;
+        }
+        return remaining / (60 * 1000);
+    }
+
+    /**
+     * A timed ignore and the time it expires.
+     */
+    public record Timed(String name, long expiryTime) {
+    }
+}
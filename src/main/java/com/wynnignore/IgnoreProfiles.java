@@ -0,0 +1,165 @@
+package com.wynnignore;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One ignore list per server (main Wynncraft, beta, or any other address), kept in memory so that joining
+ * a server only swaps which list is active. Lists are loaded in the background ahead of the switch, and
+ * beyond {@link #MAX_RESIDENT} the least recently used inactive list is written out and dropped.
+ */
+public class IgnoreProfiles {
+    public static final String MAIN = "main";
+    public static final String BETA = "beta";
+    // Main and beta plus a couple of other servers
+    private static final int MAX_RESIDENT = 4;
+
+    private final Path configDir;
+    // Access-ordered, so iteration starts at the least recently used profile. Guarded by this.
+    private final LinkedHashMap<String, CompletableFuture<IgnoreListManager>> resident = new LinkedHashMap<>(8, 0.75f, true);
+    // Final flush of each evicted profile until it completes, so a reload of the same file waits for it. Guarded by this.
+    private final Map<String, CompletableFuture<Void>> evicting = new HashMap<>();
+    // Loads profiles and retires evicted ones
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "WynnIgnore-Profiles");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile String activeKey;
+    private volatile IgnoreListManager active;
+
+    public IgnoreProfiles(Path configDir) {
+        this.configDir = configDir;
+    }
+
+    /**
+     * Returns the profile key for a server address: beta or main for Wynncraft (and for no address),
+     * otherwise a key derived from the address so each other server keeps its own list.
+     */
+    public static String keyFor(String address) {
+        String lower = address.toLowerCase();
+        if (lower.contains("beta") && lower.contains("wynncraft")) {
+            return BETA;
+        }
+        if (lower.isEmpty() || lower.contains("wynncraft")) {
+            return MAIN;
+        }
+        // Prefixed so an address can never collide with main or beta
+        return "server-" + lower.replaceAll("[^a-z0-9._-]", "_");
+    }
+
+    /**
+     * Data file of a profile. Main and beta keep the file names they had before profiles existed.
+     */
+    static String fileNameFor(String key) {
+        return MAIN.equals(key) ? "wynnignore.json" : "wynnignore_" + key + ".json";
+    }
+
+    /**
+     * Starts loading a profile in the background unless it is already resident or loading. A profile that was
+     * just evicted is only read back once its final write has finished.
+     */
+    public synchronized CompletableFuture<IgnoreListManager> prefetch(String key) {
+        CompletableFuture<IgnoreListManager> profile = resident.get(key);
+        if (profile == null) {
+            IgnoreListManager manager = new IgnoreListManager(configDir, fileNameFor(key));
+            CompletableFuture<Void> retiring = evicting.getOrDefault(key, CompletableFuture.completedFuture(null));
+            // A failed flush was already logged by the manager; load whatever made it to disk
+            profile = retiring.handle((ignored, error) -> null).thenApplyAsync(ignored -> {
+                manager.load();
+                return manager;
+            }, loader);
+            resident.put(key, profile);
+            evict();
+        }
+        return profile;
+    }
+
+    /**
+     * Makes the profile for the key active and returns it. Does nothing if it already is; otherwise swaps the
+     * active reference, only waiting if the profile's background load has not finished yet. Pending changes of
+     * the previous profile are written on its I/O thread without waiting.
+     */
+    public IgnoreListManager switchTo(String key) {
+        if (key.equals(activeKey)) {
+            return active;
+        }
+
+        IgnoreEvents.ServerSwitch event = IgnoreEvents.isEnabled() ? new IgnoreEvents.ServerSwitch() : null;
+        if (event != null) {
+            event.begin();
+        }
+        CompletableFuture<IgnoreListManager> profile = prefetch(key);
+        boolean waited = !profile.isDone();
+        IgnoreListManager manager = profile.join();
+        IgnoreListManager previous = active;
+        synchronized (this) {
+            active = manager;
+            activeKey = key;
+            // The previous profile may now be the one to go
+            evict();
+        }
+        manager.onActivated();
+        if (previous != null) {
+            previous.flushAsync();
+        }
+        if (event != null) {
+            event.server = key;
+            event.path = manager.getConfigPath().toString();
+            event.entries = manager.getIgnoredPlayers().size();
+            event.waited = waited;
+            event.commit();
+        }
+
+        WynnIgnoreMod.LOGGER.info("Switched to {} server ignore list{}", key, waited ? " (waited for load)" : "");
+        return manager;
+    }
+
+    /**
+     * Drops the least recently used inactive profiles beyond the limit. Each is flushed and its I/O thread
+     * stopped on the loader thread once any load still running for it has finished.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, CompletableFuture<IgnoreListManager>>> iterator = resident.entrySet().iterator();
+        while (resident.size() > MAX_RESIDENT && iterator.hasNext()) {
+            Map.Entry<String, CompletableFuture<IgnoreListManager>> entry = iterator.next();
+            if (entry.getKey().equals(activeKey)) {
+                continue;
+            }
+            iterator.remove();
+            String key = entry.getKey();
+            CompletableFuture<Void> retiring = entry.getValue().thenAcceptAsync(IgnoreListManager::shutdown, loader);
+            evicting.put(key, retiring);
+            retiring.whenComplete((ignored, error) -> {
+                synchronized (this) {
+                    evicting.remove(key, retiring);
+                }
+            });
+            WynnIgnoreMod.LOGGER.info("Unloaded {} server ignore list", entry.getKey());
+        }
+    }
+
+    /**
+     * Writes every resident profile to disk and stops their I/O threads. Called on client shutdown.
+     */
+    public void shutdown() {
+        List<CompletableFuture<IgnoreListManager>> profiles;
+        synchronized (this) {
+            profiles = new ArrayList<>(resident.values());
+            resident.clear();
+        }
+        for (CompletableFuture<IgnoreListManager> profile : profiles) {
+            profile.join().shutdown();
+        }
+        // Let profiles evicted earlier finish writing
+        loader.shutdown();
+    }
+}
@@ -0,0 +1,164 @@
+package com.wynnignore;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Session-wide counters and latency histograms for the command queue, chat parsing and persistence.
+ * Recording is a LongAdder or atomic increment with no locks, so it is safe from the network, client
+ * and I/O threads. Shown by {@code /wynnignore stats} and written as JSON by {@code /wynnignore stats dump}.
+ */
+public final class Metrics {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    // Command queue
+    public static final LongAdder COMMANDS_SENT = new LongAdder();
+    public static final LongAdder CONFIRMATIONS = new LongAdder();
+    public static final LongAdder RETRIES = new LongAdder();
+    public static final LongAdder GIVE_UPS = new LongAdder();
+    public static final RecentCount SENT_LAST_MINUTE = new RecentCount();
+    public static final Histogram CONFIRMATION_RTT = new Histogram("ms");
+
+    // Chat and timers
+    public static final Histogram CHAT_SCAN = new Histogram("ns");
+    public static final Histogram EXPIRY_CHECK = new Histogram("us");
+
+    // Persistence
+    public static final Histogram SNAPSHOT_WRITE = new Histogram("us");
+    public static final Histogram JOURNAL_APPEND = new Histogram("us");
+    public static final Histogram LOAD = new Histogram("us");
+    public static final LongAdder BYTES_WRITTEN = new LongAdder();
+    public static final LongAdder BYTES_READ = new LongAdder();
+
+    private Metrics() {
+    }
+
+    /**
+     * Histograms by the name they are reported under.
+     */
+    public static Map<String, Histogram> histograms() {
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        histograms.put("confirmationRtt", CONFIRMATION_RTT);
+        histograms.put("chatScan", CHAT_SCAN);
+        histograms.put("expiryCheck", EXPIRY_CHECK);
+        histograms.put("snapshotWrite", SNAPSHOT_WRITE);
+        histograms.put("journalAppend", JOURNAL_APPEND);
+        histograms.put("load", LOAD);
+        return histograms;
+    }
+
+    /**
+     * Microseconds elapsed since a {@link System#nanoTime()} reading.
+     */
+    public static long microsSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000;
+    }
+
+    /**
+     * Writes every counter, the current queue state and full histogram buckets to a JSON file.
+     */
+    public static void dump(Path path) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("time", Instant.now().toString());
+
+        JsonObject queue = new JsonObject();
+        for (CommandQueue.Lane lane : CommandQueue.Lane.values()) {
+            queue.addProperty(lane.name().toLowerCase(), CommandHandler.getQueueDepth(lane));
+        }
+        queue.addProperty("inFlight", CommandHandler.getInFlightCount());
+        queue.addProperty("commandDelayMs", CommandHandler.getCommandDelayMs());
+        root.add("queue", queue);
+
+        JsonObject counters = new JsonObject();
+        counters.addProperty("commandsSent", COMMANDS_SENT.sum());
+        counters.addProperty("sentLastMinute", SENT_LAST_MINUTE.get(WynnIgnoreMod.getScheduler().now()));
+        counters.addProperty("confirmations", CONFIRMATIONS.sum());
+        counters.addProperty("retries", RETRIES.sum());
+        counters.addProperty("giveUps", GIVE_UPS.sum());
+        counters.addProperty("avoided", CommandHandler.getAvoidedCommandCount());
+        counters.addProperty("bytesWritten", BYTES_WRITTEN.sum());
+        counters.addProperty("bytesRead", BYTES_READ.sum());
+        root.add("counters", counters);
+
+        JsonObject histograms = new JsonObject();
+        for (Map.Entry<String, Histogram> entry : histograms().entrySet()) {
+            Histogram.Snapshot snapshot = entry.getValue().snapshot();
+            JsonObject histogram = new JsonObject();
+            histogram.addProperty("unit", entry.getValue().getUnit());
+            histogram.addProperty("count", snapshot.count());
+            histogram.addProperty("mean", snapshot.mean());
+            histogram.addProperty("p50", snapshot.percentile(0.5));
+            histogram.addProperty("p90", snapshot.percentile(0.9));
+            histogram.addProperty("p99", snapshot.percentile(0.99));
+            histogram.addProperty("max", snapshot.max());
+            // Bucket b holds values below 2^b; trailing empty buckets are left out
+            JsonArray buckets = new JsonArray();
+            int last = snapshot.buckets().length - 1;
+            while (last >= 0 && snapshot.buckets()[last] == 0) {
+                last--;
+            }
+            for (int b = 0; b <= last; b++) {
+                buckets.add(snapshot.buckets()[b]);
+            }
+            histogram.add("buckets", buckets);
+            histograms.add(entry.getKey(), histogram);
+        }
+        root.add("histograms", histograms);
+
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            GSON.toJson(root, writer);
+        }
+    }
+
+    /**
+     * Counts events over the last minute in one-second slots. Slots are reset by whichever thread
+     * first records into a new second, so a count racing with that reset may be lost; that is fine
+     * for a rate display.
+     */
+    public static final class RecentCount {
+        private static final int SLOTS = 60;
+        private static final long SLOT_NANOS = 1_000_000_000L;
+
+        private final AtomicLongArray seconds = new AtomicLongArray(SLOTS);
+        private final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+
+        /**
+         * Records one event at the given scheduler time.
+         */
+        public void record(long nowNanos) {
+            long second = Math.floorDiv(nowNanos, SLOT_NANOS);
+            int slot = (int) Math.floorMod(second, SLOTS);
+            long stamp = seconds.get(slot);
+            if (stamp != second && seconds.compareAndSet(slot, stamp, second)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+        }
+
+        /**
+         * Returns the number of events in the minute up to the given scheduler time.
+         */
+        public long get(long nowNanos) {
+            long second = Math.floorDiv(nowNanos, SLOT_NANOS);
+            long total = 0;
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (second - seconds.get(slot) < SLOTS) {
+                    total += counts.get(slot);
+                }
+            }
+            return total;
+        }
+    }
+}
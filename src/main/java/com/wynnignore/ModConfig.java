@@ -12,16 +12,24 @@ import java.nio.file.Path;
 
 public class ModConfig {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final Path CONFIG_PATH = FabricLoader.getInstance().getConfigDir().resolve("wynnignore_config.json");
 
     private static volatile ModConfig instance;
     private static final Object LOCK = new Object();
+    // Set when running outside the game (benchmarks); the config then never touches disk
+    private static volatile boolean detached = false;
 
     // Configuration values
     private int warIgnoreDurationMinutes = 5;
     private double warIgnoreDistance = 10.0;
     private int commandDelayMs = 500;
     private int commandMaxRetries = 3;
+    private int commandWindowSize = 3;
+    private boolean adaptiveCommandDelay = true;
+    private int minCommandDelayMs = 100;
+    private boolean journalPersistence = true;
+    private boolean binarySnapshots = false;
+    private boolean recordChat = false;
+    private boolean flightRecorderEvents = false;
 
     public static ModConfig getInstance() {
         if (instance == null) {
@@ -34,6 +42,21 @@ public class ModConfig {
         return instance;
     }
 
+    /**
+     * Uses default settings that are never loaded from or saved to disk, for running without Fabric Loader.
+     */
+    static ModConfig useDetachedInstance() {
+        synchronized (LOCK) {
+            detached = true;
+            instance = new ModConfig();
+            return instance;
+        }
+    }
+
+    private static Path configPath() {
+        return FabricLoader.getInstance().getConfigDir().resolve("wynnignore_config.json");
+    }
+
     public int getWarIgnoreDurationMinutes() {
         return warIgnoreDurationMinutes;
     }
@@ -74,9 +97,75 @@ public class ModConfig {
         save();
     }
 
+    public int getCommandWindowSize() {
+        return commandWindowSize;
+    }
+
+    public void setCommandWindowSize(int size) {
+        this.commandWindowSize = Math.max(1, Math.min(10, size));
+        save();
+    }
+
+    public boolean isAdaptiveCommandDelay() {
+        return adaptiveCommandDelay;
+    }
+
+    public void setAdaptiveCommandDelay(boolean enabled) {
+        this.adaptiveCommandDelay = enabled;
+        save();
+    }
+
+    public int getMinCommandDelayMs() {
+        return minCommandDelayMs;
+    }
+
+    public void setMinCommandDelayMs(int ms) {
+        this.minCommandDelayMs = Math.max(50, Math.min(1000, ms));
+        save();
+    }
+
+    public boolean isJournalPersistence() {
+        return journalPersistence;
+    }
+
+    public void setJournalPersistence(boolean enabled) {
+        this.journalPersistence = enabled;
+        save();
+    }
+
+    public boolean isBinarySnapshots() {
+        return binarySnapshots;
+    }
+
+    public void setBinarySnapshots(boolean enabled) {
+        this.binarySnapshots = enabled;
+        save();
+    }
+
+    public boolean isRecordChat() {
+        return recordChat;
+    }
+
+    public void setRecordChat(boolean enabled) {
+        this.recordChat = enabled;
+        save();
+    }
+
+    public boolean isFlightRecorderEvents() {
+        return flightRecorderEvents;
+    }
+
+    public void setFlightRecorderEvents(boolean enabled) {
+        this.flightRecorderEvents = enabled;
+        save();
+    }
+
     public void save() {
+        if (detached) {
+            return;
+        }
         synchronized (LOCK) {
-            try (Writer writer = Files.newBufferedWriter(CONFIG_PATH)) {
+            try (Writer writer = Files.newBufferedWriter(configPath())) {
                 GSON.toJson(this, writer);
             } catch (IOException e) {
                 WynnIgnoreMod.LOGGER.error("Failed to save config", e);
@@ -85,8 +174,9 @@ public class ModConfig {
     }
 
     private static ModConfig load() {
-        if (Files.exists(CONFIG_PATH)) {
-            try (Reader reader = Files.newBufferedReader(CONFIG_PATH)) {
+        Path path = configPath();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
                 ModConfig config = GSON.fromJson(reader, ModConfig.class);
                 if (config != null) {
                     // Validate loaded values
@@ -94,6 +184,8 @@ public class ModConfig {
                     config.warIgnoreDistance = Math.max(1.0, Math.min(50.0, config.warIgnoreDistance));
                     config.commandDelayMs = Math.max(100, Math.min(1000, config.commandDelayMs));
                     config.commandMaxRetries = Math.max(0, Math.min(5, config.commandMaxRetries));
+                    config.commandWindowSize = Math.max(1, Math.min(10, config.commandWindowSize));
+                    config.minCommandDelayMs = Math.max(50, Math.min(1000, config.minCommandDelayMs));
                     return config;
                 }
             } catch (Exception e) {
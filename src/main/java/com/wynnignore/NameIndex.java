@@ -0,0 +1,140 @@
+package com.wynnignore;
+
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of ignored player names for prefix completion, updated by the manager on every change instead
+ * of being rebuilt. Completions rank timed ignores first, soonest expiry first, then players added since
+ * the index was built, most recent first, then the rest of the list alphabetically.
+ * Backed by concurrent maps and skip lists, so completions can read it from another thread while it is being updated.
+ * Updates come from one thread at a time, under the manager's lock.
+ */
+public class NameIndex {
+    // Ranked entries are bucketed by every prefix up to this length
+    private static final int BUCKET_DEPTH = 3;
+
+    private final ConcurrentHashMap<String, Entry> byName = new ConcurrentHashMap<>();
+    // Names without a rank, alphabetically, so completions never step over ranked names to reach them
+    private final ConcurrentSkipListSet<String> unranked = new ConcurrentSkipListSet<>();
+    // Timed ignores and players added since the build, in rank order, by name prefix; the empty prefix holds all of them
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<Entry>> ranked = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Builds an index over a snapshot. Its permanent ignores have no recency and rank alphabetically.
+     */
+    public static NameIndex build(IgnoreListSnapshot snapshot) {
+        NameIndex index = new NameIndex();
+        Map<String, Long> timedIgnores = snapshot.getTimedIgnores();
+        // Sorted input keeps skip list inserts at the tail
+        for (String name : snapshot.getSorted()) {
+            Long expiry = timedIgnores.get(name);
+            index.add(new Entry(name, expiry != null ? expiry : 0, 0));
+        }
+        return index;
+    }
+
+    /**
+     * Adds or updates a name. Pass an expiry time for a timed ignore, or 0 for a permanent one.
+     */
+    public void put(String name, long expiryTime) {
+        remove(name);
+        add(new Entry(name, expiryTime, sequence.incrementAndGet()));
+    }
+
+    public void remove(String name) {
+        Entry previous = byName.remove(name);
+        if (previous == null) {
+            return;
+        }
+        if (!previous.isRanked()) {
+            unranked.remove(name);
+            return;
+        }
+        for (int length = 0; length <= Math.min(name.length(), BUCKET_DEPTH); length++) {
+            String prefix = name.substring(0, length);
+            ConcurrentSkipListSet<Entry> bucket = ranked.get(prefix);
+            bucket.remove(previous);
+            if (bucket.isEmpty()) {
+                // Safe with a single writer: nothing can be adding to the bucket meanwhile
+                ranked.remove(prefix, bucket);
+            }
+        }
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * Fills out with the best ranked names starting with the lowercased prefix and returns how many were found.
+     * Ranked names are read in order from the bucket of the prefix, the rest from the start of the prefix's
+     * range of unranked names, and both reads stop as soon as out is full. A prefix of up to three characters
+     * therefore costs the same however long the list and its timed part are. A longer prefix filters the
+     * bucket of its first three characters, so it costs more as more timed and recent names share them.
+     * A name being updated concurrently may be returned twice; Brigadier drops duplicate suggestions.
+     */
+    public int suggest(String prefix, String[] out) {
+        int count = 0;
+        boolean bucketed = prefix.length() <= BUCKET_DEPTH;
+        ConcurrentSkipListSet<Entry> bucket = ranked.get(bucketed ? prefix : prefix.substring(0, BUCKET_DEPTH));
+        if (bucket != null) {
+            for (Entry entry : bucket) {
+                if (count == out.length) {
+                    return count;
+                }
+                if (bucketed || entry.name().startsWith(prefix)) {
+                    out[count++] = entry.name();
+                }
+            }
+        }
+
+        NavigableSet<String> range = prefix.isEmpty()
+            ? unranked
+            : unranked.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+        for (String name : range) {
+            if (count == out.length) {
+                break;
+            }
+            out[count++] = name;
+        }
+        return count;
+    }
+
+    private void add(Entry entry) {
+        String name = entry.name();
+        byName.put(name, entry);
+        if (!entry.isRanked()) {
+            unranked.add(name);
+        } else {
+            for (int length = 0; length <= Math.min(name.length(), BUCKET_DEPTH); length++) {
+                ranked.computeIfAbsent(name.substring(0, length), prefix -> new ConcurrentSkipListSet<>()).add(entry);
+            }
+        }
+    }
+
+    private record Entry(String name, long expiryTime, long sequence) implements Comparable<Entry> {
+        boolean isRanked() {
+            return expiryTime != 0 || sequence != 0;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            boolean timed = expiryTime != 0;
+            if (timed != (other.expiryTime != 0)) {
+                return timed ? -1 : 1;
+            }
+            if (expiryTime != other.expiryTime) {
+                return Long.compare(expiryTime, other.expiryTime);
+            }
+            if (sequence != other.sequence) {
+                return Long.compare(other.sequence, sequence);
+            }
+            return name.compareTo(other.name);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.wynnignore;
+
+/**
+ * Adapts the gap between queued commands and the confirmation timeout to how fast the server answers.
+ *
+ * The delay follows AIMD: it shrinks by a fixed step after every confirmation that arrives within the
+ * usual round-trip time and doubles after a timeout, always staying between the configured minimum and
+ * maximum delay. The timeout is derived like TCP's RTO (RFC 6298) from a smoothed round-trip time and
+ * its variance, doubled on each timeout and sampled only from commands that were not retried (Karn).
+ */
+public class RateController {
+    // Amount the delay shrinks per fast confirmation
+    private static final long DELAY_DECREASE_MS = 25;
+    // Smoothing gains from RFC 6298
+    private static final double RTT_ALPHA = 1.0 / 8;
+    private static final double RTT_BETA = 1.0 / 4;
+    // Lower bound for the variance term, roughly one client tick plus scheduling jitter
+    private static final long MIN_VARIANCE_MS = 50;
+    private static final long MIN_TIMEOUT_MS = 300;
+    private static final int MAX_BACKOFF = 16;
+
+    private long delayMs = -1;
+    private double smoothedRttMs = -1;
+    private double rttVarianceMs = 0;
+    private int backoff = 1;
+
+    /**
+     * Forgets everything learned about the server and starts again from the configured delay.
+     */
+    public synchronized void reset() {
+        delayMs = -1;
+        smoothedRttMs = -1;
+        rttVarianceMs = 0;
+        backoff = 1;
+    }
+
+    /**
+     * Current gap to leave between two sent commands.
+     */
+    public synchronized long getDelayMs() {
+        ModConfig config = ModConfig.getInstance();
+        long max = config.getCommandDelayMs();
+        if (!config.isAdaptiveCommandDelay()) {
+            return max;
+        }
+        long min = Math.min(config.getMinCommandDelayMs(), max);
+        if (delayMs < 0) {
+            // Start cautiously at the configured delay
+            delayMs = max;
+        }
+        delayMs = Math.max(min, Math.min(max, delayMs));
+        return delayMs;
+    }
+
+    /**
+     * Timeout for a command sent now. Falls back to the given ceiling until a round trip has been measured.
+     */
+    public synchronized long getTimeoutMs(long maxTimeoutMs) {
+        if (smoothedRttMs < 0 || !ModConfig.getInstance().isAdaptiveCommandDelay()) {
+            return maxTimeoutMs;
+        }
+        long timeout = (long) (smoothedRttMs + Math.max(MIN_VARIANCE_MS, 4 * rttVarianceMs)) * backoff;
+        return Math.max(Math.min(MIN_TIMEOUT_MS, maxTimeoutMs), Math.min(maxTimeoutMs, timeout));
+    }
+
+    /**
+     * Records a confirmation. Round trips of retried commands are ambiguous and are not sampled.
+     */
+    public synchronized void onConfirmed(long rttMs, boolean retried) {
+        if (retried) {
+            return;
+        }
+        backoff = 1;
+
+        boolean fast;
+        if (smoothedRttMs < 0) {
+            smoothedRttMs = rttMs;
+            rttVarianceMs = rttMs / 2.0;
+            fast = true;
+        } else {
+            fast = rttMs <= smoothedRttMs + rttVarianceMs;
+            rttVarianceMs = (1 - RTT_BETA) * rttVarianceMs + RTT_BETA * Math.abs(smoothedRttMs - rttMs);
+            smoothedRttMs = (1 - RTT_ALPHA) * smoothedRttMs + RTT_ALPHA * rttMs;
+        }
+
+        if (fast && delayMs > 0) {
+            delayMs -= DELAY_DECREASE_MS;
+            getDelayMs(); // clamp to the configured floor
+        }
+    }
+
+    /**
+     * Records a confirmation timeout: doubles both the delay and the timeout.
+     */
+    public synchronized void onTimeout() {
+        if (delayMs > 0) {
+            delayMs *= 2;
+            getDelayMs(); // clamp to the configured ceiling
+        }
+        backoff = Math.min(MAX_BACKOFF, backoff * 2);
+    }
+}
@@ -0,0 +1,135 @@
+package com.wynnignore;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Runs one-shot tasks from the client tick once their deadline has passed.
+ * Each task is registered once and owns a single deadline slot; scheduling it again moves the deadline.
+ * Deadlines use {@link System#nanoTime()} by default, so changes to the wall clock cannot fire them
+ * early or late. A tick with nothing scheduled costs a single volatile read, and one with nothing due yet
+ * a clock read and a comparison, without taking the lock.
+ */
+public class TickScheduler {
+    // Only a handful of timers exist, so a bitmask over flat arrays beats a timer wheel or heap
+    private static final int MAX_TASKS = 16;
+
+    private final Runnable[] tasks = new Runnable[MAX_TASKS];
+    private final long[] deadlines = new long[MAX_TASKS];
+    private int taskCount = 0;
+    // Bit i is set while task i has a deadline (guarded by this)
+    private int armed = 0;
+    // Earliest armed deadline, written under the lock and read without it by tick
+    private volatile long earliest = 0;
+    // Mirrors armed != 0 so idle ticks skip the lock and the clock read
+    private volatile boolean pending = false;
+    private volatile LongSupplier clock = System::nanoTime;
+
+    /**
+     * Returns the current time in nanoseconds on the scheduler's clock.
+     */
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Replaces the clock, so a simulation can advance time itself.
+     */
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Registers a task and returns the id used to schedule it.
+     */
+    public synchronized int register(Runnable task) {
+        if (taskCount == MAX_TASKS) {
+            throw new IllegalStateException("Too many scheduled tasks");
+        }
+        tasks[taskCount] = task;
+        return taskCount++;
+    }
+
+    /**
+     * Sets the task's deadline, replacing any earlier or later one.
+     */
+    public synchronized void schedule(int id, long deadlineNanos) {
+        deadlines[id] = deadlineNanos;
+        armed |= 1 << id;
+        updateEarliest();
+    }
+
+    /**
+     * Sets the task's deadline unless it is already due sooner.
+     */
+    public synchronized void scheduleNoLaterThan(int id, long deadlineNanos) {
+        if ((armed & (1 << id)) != 0 && deadlines[id] - deadlineNanos <= 0) {
+            return;
+        }
+        schedule(id, deadlineNanos);
+    }
+
+    /**
+     * Sets the task to run the given number of milliseconds from now.
+     */
+    public void scheduleIn(int id, long delayMs) {
+        schedule(id, now() + delayMs * 1_000_000L);
+    }
+
+    public synchronized void cancel(int id) {
+        armed &= ~(1 << id);
+        updateEarliest();
+    }
+
+    /**
+     * Runs every task whose deadline has passed. Tasks run outside the lock, so they may reschedule themselves.
+     */
+    public void tick() {
+        if (!pending) {
+            return;
+        }
+
+        long now = now();
+        if (now - earliest < 0) {
+            return;
+        }
+        int due = 0;
+        synchronized (this) {
+            if (now - earliest < 0) {
+                return;
+            }
+            for (int id = 0; id < taskCount; id++) {
+                int bit = 1 << id;
+                if ((armed & bit) != 0 && now - deadlines[id] >= 0) {
+                    due |= bit;
+                    armed &= ~bit;
+                }
+            }
+            updateEarliest();
+        }
+
+        for (int id = 0; due != 0; id++, due >>>= 1) {
+            if ((due & 1) == 0) {
+                continue;
+            }
+            try {
+                tasks[id].run();
+            } catch (RuntimeException e) {
+                WynnIgnoreMod.LOGGER.error("Scheduled task failed", e);
+            }
+        }
+    }
+
+    private void updateEarliest() {
+        boolean found = false;
+        long next = 0;
+        for (int id = 0; id < taskCount; id++) {
+            if ((armed & (1 << id)) != 0 && (!found || deadlines[id] - next < 0)) {
+                next = deadlines[id];
+                found = true;
+            }
+        }
+        // Written before pending, so a tick that sees a task armed also sees its deadline
+        earliest = next;
+        pending = found;
+    }
+}
@@ -0,0 +1,127 @@
+package com.wynnignore;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a write task on a background I/O thread at most once per delay window.
+ * Any number of {@link #markDirty()} calls inside the window collapse into a single write,
+ * and a change is never persisted later than the delay after it was first marked.
+ */
+public class WriteBehindSaver {
+    private final String threadName;
+    private final ScheduledExecutorService executor;
+    private final Runnable writeTask;
+    private final long delayMs;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public WriteBehindSaver(String threadName, long delayMs, Runnable writeTask) {
+        this.threadName = threadName;
+        this.writeTask = writeTask;
+        this.delayMs = delayMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Records that the data changed and schedules a write if none is pending. After {@link #shutdown()}
+     * nothing is written any more, so the change is only logged; callers may hold locks the write needs.
+     */
+    public void markDirty() {
+        boolean wasDirty = dirty.getAndSet(true);
+        if (executor.isShutdown()) {
+            logDropped(wasDirty);
+            return;
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::writeScheduled, delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shut down since the check above
+                scheduled.set(false);
+                logDropped(wasDirty);
+            }
+        }
+    }
+
+    /**
+     * Writes any pending change immediately and blocks until it is on disk.
+     */
+    public void flush() {
+        try {
+            awaitWrites(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Unreachable with an unbounded wait
+        }
+    }
+
+    /**
+     * Writes any pending change on the I/O thread as soon as possible without waiting for it.
+     */
+    public void flushAsync() {
+        if (!executor.isShutdown()) {
+            executor.execute(this::writeIfDirty);
+        }
+    }
+
+    /**
+     * Writes any pending change immediately and waits up to the given time for it to be durable.
+     * Returns false if the thread was interrupted or the saver has been shut down.
+     */
+    public boolean awaitWrites(long timeout, TimeUnit unit) throws TimeoutException {
+        if (executor.isShutdown()) {
+            return false;
+        }
+        try {
+            executor.submit(this::writeIfDirty).get(timeout, unit);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            WynnIgnoreMod.LOGGER.error("Background save failed", e.getCause());
+            return true;
+        }
+    }
+
+    /**
+     * Flushes pending changes and stops the I/O thread.
+     */
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+    }
+
+    private void logDropped(boolean wasDirty) {
+        // Once per unsaved batch, not for every change that follows
+        if (!wasDirty) {
+            WynnIgnoreMod.LOGGER.warn("{} has shut down, a change made afterwards will not be saved", threadName);
+        }
+    }
+
+    private void writeScheduled() {
+        // Clear before writing so a change made during the write schedules another one
+        scheduled.set(false);
+        writeIfDirty();
+    }
+
+    private void writeIfDirty() {
+        if (dirty.getAndSet(false)) {
+            try {
+                writeTask.run();
+            } catch (RuntimeException e) {
+                WynnIgnoreMod.LOGGER.error("Background save failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.wynnignore;
+
+/**
+ * Decodes text drawn in Wynncraft's custom font back to plain ASCII.
+ *
+ * Each glyph is 3 Java chars: a BMP Private Use Area selector (U+E000-U+F8FF) followed by the
+ * constant surrogate pair U+DAFF U+DFFF. Selectors map to characters through one flat table;
+ * selectors without a known character (decorative caps, icons) decode to nothing.
+ */
+public final class WynnFontDecoder {
+    public static final char GLYPH_MARKER_HIGH = '\uDAFF';
+    public static final char GLYPH_MARKER_LOW = '\uDFFF';
+
+    private static final char FIRST_SELECTOR = '\uE000';
+    private static final char LAST_SELECTOR = '\uF8FF';
+
+    // Decoded character per selector, 0 where the glyph has no text
+    private static final char[] TABLE = new char[LAST_SELECTOR - FIRST_SELECTOR + 1];
+
+    static {
+        // Capital letters run consecutively from U+E030. Captured from the DISGUISED nametag tag:
+        // U+E060 U+E033 U+E038 U+E042 U+E036 U+E044 U+E038 U+E042 U+E034 U+E033,
+        // where the leading U+E060 is the tag's opening cap and draws no letter
+        for (char c = 'A'; c <= 'Z'; c++) {
+            TABLE['\uE030' + (c - 'A') - FIRST_SELECTOR] = c;
+        }
+    }
+
+    private WynnFontDecoder() {
+    }
+
+    /**
+     * Returns true if a full glyph (selector and marker pair) starts at index i.
+     */
+    public static boolean isGlyph(CharSequence text, int i) {
+        if (i + 2 >= text.length()) return false;
+        char c = text.charAt(i);
+        return c >= FIRST_SELECTOR && c <= LAST_SELECTOR
+            && text.charAt(i + 1) == GLYPH_MARKER_HIGH
+            && text.charAt(i + 2) == GLYPH_MARKER_LOW;
+    }
+
+    /**
+     * Returns the character drawn by a glyph selector, or 0 if it has none.
+     */
+    public static char decodeGlyph(char selector) {
+        if (selector < FIRST_SELECTOR || selector > LAST_SELECTOR) return 0;
+        return TABLE[selector - FIRST_SELECTOR];
+    }
+
+    /**
+     * Replaces every custom-font glyph with the character it draws and drops other Private Use Area
+     * characters. Text without any is returned as is; otherwise the result is built in one
+     * buffer no longer than the input.
+     */
+    public static String decode(String text) {
+        if (text == null) return null;
+        int length = text.length();
+        int first = 0;
+        while (first < length && !isPrivateUse(text.charAt(first))) {
+            first++;
+        }
+        if (first == length) return text;
+
+        char[] out = new char[length];
+        text.getChars(0, first, out, 0);
+        int n = first;
+        for (int i = first; i < length; i++) {
+            char c = text.charAt(i);
+            if (!isPrivateUse(c)) {
+                out[n++] = c;
+                continue;
+            }
+            if (isGlyph(text, i)) {
+                i += 2;
+                c = TABLE[c - FIRST_SELECTOR];
+                if (c != 0) {
+                    out[n++] = c;
+                }
+            }
+        }
+        return new String(out, 0, n);
+    }
+
+    /**
+     * Returns the glyph selectors that draw the given text, for registering custom-font tags.
+     */
+    public static char[] encodeSelectors(String text) {
+        char[] selectors = new char[text.length()];
+        for (int i = 0; i < text.length(); i++) {
+            char selector = findSelector(text.charAt(i));
+            if (selector == 0) {
+                throw new IllegalArgumentException("No Wynncraft font glyph for '" + text.charAt(i) + "'");
+            }
+            selectors[i] = selector;
+        }
+        return selectors;
+    }
+
+    private static char findSelector(char c) {
+        for (int i = 0; i < TABLE.length; i++) {
+            if (TABLE[i] == c) {
+                return (char) (FIRST_SELECTOR + i);
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isPrivateUse(char c) {
+        return c >= FIRST_SELECTOR && c <= LAST_SELECTOR;
+    }
+}
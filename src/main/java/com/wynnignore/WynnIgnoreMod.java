@@ -1,8 +1,13 @@
 package com.wynnignore;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientWorldEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
 import net.minecraft.client.network.ServerInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,32 +16,55 @@ public class WynnIgnoreMod implements ClientModInitializer {
     public static final String MOD_ID = "wynnignore";
     public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
 
-    private static IgnoreListManager ignoreListManager;
+    private static final TickScheduler scheduler = new TickScheduler();
+    private static IgnoreProfiles profiles;
+    // The active profile's list; swapped when joining a different server
+    private static volatile IgnoreListManager ignoreListManager;
+    private static ChatRecorder chatRecorder;
     private static boolean checkedOnJoin = false;
 
     @Override
     public void onInitializeClient() {
         LOGGER.info("WynnIgnore initializing...");
 
-        // Initialize the ignore list manager and load saved data
-        ignoreListManager = new IgnoreListManager();
-        ignoreListManager.load();
+        // Load the main ignore list, then the beta one in the background for a later switch
+        profiles = new IgnoreProfiles(FabricLoader.getInstance().getConfigDir());
+        ignoreListManager = profiles.switchTo(IgnoreProfiles.MAIN);
+        profiles.prefetch(IgnoreProfiles.BETA);
+
+        // Chat is only recorded while enabled in the config
+        chatRecorder = new ChatRecorder(FabricLoader.getInstance().getConfigDir().resolve("wynnignore_recordings"));
 
         // Register commands
         CommandHandler.register();
 
+        // Start loading the server's ignore list while the connection is still being set up
+        ClientPlayConnectionEvents.INIT.register((handler, client) -> profiles.prefetch(profileKey(handler)));
+
         // Register world join event to detect server and check for expired timed ignores
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
             checkedOnJoin = false;
+            DisguisedNameCache.clear();
+
+            // Switch to the server's ignore list; rejoining the same server keeps the current one
+            ignoreListManager = profiles.switchTo(profileKey(handler));
+        });
 
-            // Detect server type and switch ignore list
-            ServerInfo serverInfo = handler.getServerInfo();
-            String address = serverInfo != null ? serverInfo.address : "";
-            String serverType = isBetaServer(address) ? "beta" : "main";
-            ignoreListManager.setServer(serverType);
+        // Drop cached disguised names for entities that leave or worlds that are replaced
+        ClientEntityEvents.ENTITY_UNLOAD.register((entity, world) -> DisguisedNameCache.invalidate(entity.getId()));
+        ClientWorldEvents.AFTER_CLIENT_WORLD_CHANGE.register((client, world) -> DisguisedNameCache.clear());
+
+        // Make sure pending list changes and chat recordings reach disk before leaving a server or closing the game
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            ignoreListManager.flush();
+            chatRecorder.endSession();
+        });
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+            profiles.shutdown();
+            chatRecorder.shutdown();
         });
 
-        // Register tick event for timed ignore expiry checking
+        // Register tick event to run queued commands, confirmation timeouts and timed ignore expiry when due
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
             if (client.world != null && client.player != null) {
                 // On first tick after joining, check for any ignores that expired while offline
@@ -46,14 +74,7 @@ public class WynnIgnoreMod implements ClientModInitializer {
                     ignoreListManager.checkTimedIgnoreExpiry();
                 }
 
-                // Check for confirmation timeout and process delayed commands every tick
-                CommandHandler.checkConfirmationTimeout();
-                CommandHandler.tickProcessQueue();
-
-                // Regular expiry check (once per second to reduce overhead)
-                if (client.world.getTime() % 20 == 0) {
-                    ignoreListManager.checkTimedIgnoreExpiry();
-                }
+                scheduler.tick();
             }
         });
 
@@ -64,8 +85,23 @@ public class WynnIgnoreMod implements ClientModInitializer {
         return ignoreListManager;
     }
 
-    private static boolean isBetaServer(String address) {
-        String lower = address.toLowerCase();
-        return lower.contains("beta") && lower.contains("wynncraft");
+    /**
+     * Replaces the ignore list manager, for driving the mod without a running client.
+     */
+    static void setIgnoreListManager(IgnoreListManager manager) {
+        ignoreListManager = manager;
+    }
+
+    public static ChatRecorder getChatRecorder() {
+        return chatRecorder;
+    }
+
+    public static TickScheduler getScheduler() {
+        return scheduler;
+    }
+
+    private static String profileKey(ClientPlayNetworkHandler handler) {
+        ServerInfo serverInfo = handler.getServerInfo();
+        return IgnoreProfiles.keyFor(serverInfo != null ? serverInfo.address : "");
     }
 }
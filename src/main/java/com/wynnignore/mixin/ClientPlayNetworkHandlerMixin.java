@@ -1,10 +1,14 @@
 package com.wynnignore.mixin;
 
+import com.wynnignore.ChatRecorder;
 import com.wynnignore.CommandHandler;
+import com.wynnignore.DisguisedNameCache;
 import com.wynnignore.IgnoreListManager;
+import com.wynnignore.ModConfig;
 import com.wynnignore.WynnIgnoreMod;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.packet.s2c.play.EntityTrackerUpdateS2CPacket;
 import net.minecraft.network.packet.s2c.play.GameMessageS2CPacket;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
@@ -13,22 +17,38 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.util.Set;
+import java.util.Arrays;
 
 @Mixin(ClientPlayNetworkHandler.class)
 public class ClientPlayNetworkHandlerMixin {
 
     @Inject(method = "onGameMessage", at = @At("HEAD"))
     private void onGameMessage(GameMessageS2CPacket packet, CallbackInfo ci) {
+        // The handler first runs on the network thread, where forceMainThread re-queues the packet for
+        // the client thread. Only handle the second call, so the command queue and ignore list have a
+        // single writer and each message is seen once.
+        if (!MinecraftClient.getInstance().isOnThread()) {
+            return;
+        }
         if (packet.content() == null) {
             return;
         }
         String message = packet.content().getString();
         if (message != null) {
+            ChatRecorder recorder = WynnIgnoreMod.getChatRecorder();
+            if (recorder != null && ModConfig.getInstance().isRecordChat()) {
+                recorder.record(message);
+            }
             CommandHandler.onChatMessage(message);
         }
     }
 
+    @Inject(method = "onEntityTrackerUpdate", at = @At("TAIL"))
+    private void onEntityTrackerUpdate(EntityTrackerUpdateS2CPacket packet, CallbackInfo ci) {
+        // A nametag's text may have changed; decode it again on the next lookup
+        DisguisedNameCache.invalidate(packet.id());
+    }
+
     @Inject(method = "sendChatCommand", at = @At("HEAD"), cancellable = true)
     private void onSendChatCommand(String command, CallbackInfo ci) {
         // Check if this is an /ignore command
@@ -53,58 +73,10 @@ public class ClientPlayNetworkHandlerMixin {
 
         String subCommand = parts[1].toLowerCase();
 
-        // Handle "/ignore list" - intercept and show our tracked list
+        // Handle "/ignore list [page] [sort] [filter]" - intercept and show a page of our tracked list
         if (subCommand.equals("list")) {
             ci.cancel();
-
-            Set<String> players = manager.getIgnoredPlayers();
-            if (players.isEmpty()) {
-                if (client.player != null) {
-                    client.player.sendMessage(
-                        Text.literal("[WynnIgnore] Your tracked ignore list is empty.").formatted(Formatting.YELLOW),
-                        false
-                    );
-                }
-            } else {
-                if (client.player != null) {
-                    client.player.sendMessage(
-                        Text.literal("[WynnIgnore] Tracked ignored players (" + players.size() + "):").formatted(Formatting.GOLD),
-                        false
-                    );
-
-                    StringBuilder sb = new StringBuilder();
-                    int i = 0;
-                    for (String player : players) {
-                        if (i > 0) {
-                            sb.append(", ");
-                        }
-                        sb.append(player);
-
-                        // Show remaining time for timed ignores
-                        long remaining = manager.getRemainingMinutes(player);
-                        if (remaining >= 0) {
-                            sb.append(" (").append(remaining).append("m)");
-                        }
-                        i++;
-
-                        // Send in batches to avoid too long messages
-                        if (i % 5 == 0) {
-                            client.player.sendMessage(
-                                Text.literal("  " + sb.toString()).formatted(Formatting.GRAY),
-                                false
-                            );
-                            sb = new StringBuilder();
-                        }
-                    }
-
-                    if (sb.length() > 0) {
-                        client.player.sendMessage(
-                            Text.literal("  " + sb.toString()).formatted(Formatting.GRAY),
-                            false
-                        );
-                    }
-                }
-            }
+            CommandHandler.handleIgnoreList(Arrays.copyOfRange(parts, 2, parts.length));
             return;
         }
 
@@ -127,7 +99,7 @@ public class ClientPlayNetworkHandlerMixin {
             // Handle "/ignore add <player>" - track the player and let through
             if (playerName.equalsIgnoreCase("add") && parts.length >= 3) {
                 if (!CommandHandler.isSendingQueuedCommand()) {
-                    manager.addPlayer(parts[2]);
+                    CommandHandler.onDirectIgnore(parts[2]);
                 }
                 return;
             }
@@ -163,7 +135,7 @@ public class ClientPlayNetworkHandlerMixin {
 
             // Regular ignore without time - track it and let through
             if (!CommandHandler.isSendingQueuedCommand()) {
-                manager.addPlayer(playerName);
+                CommandHandler.onDirectIgnore(playerName);
             }
             // Let the command through to the server
         }
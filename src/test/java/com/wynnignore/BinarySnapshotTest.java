@@ -0,0 +1,45 @@
+package com.wynnignore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BinarySnapshotTest {
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("wynnignore-binary");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        IgnoreLists.delete(directory);
+    }
+
+    @Test
+    void keepsAddOrderAndExpiries() throws IOException {
+        Path path = directory.resolve("list.bin");
+        List<String> players = List.of("carl", "bob", "anna", "dave");
+        Map<String, Long> timed = Map.of("bob", 1000L, "dave", 2000L);
+        BinarySnapshot.write(path, 7, players, timed);
+
+        List<String> readPlayers = new ArrayList<>();
+        Map<String, Long> readTimed = new HashMap<>();
+        BinarySnapshot.Header header = BinarySnapshot.read(path, readPlayers, readTimed);
+        assertEquals(BinarySnapshot.VERSION, header.version());
+        assertEquals(7, header.generation());
+        assertEquals(players, readPlayers);
+        assertEquals(timed, readTimed);
+    }
+}
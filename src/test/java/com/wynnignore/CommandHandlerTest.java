@@ -0,0 +1,190 @@
+package com.wynnignore;
+
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the command queue on a simulated clock against a server that never replies on its own,
+ * so each test decides which confirmations arrive.
+ */
+class CommandHandlerTest {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final List<String> sent = new ArrayList<>();
+    private final List<String> shown = new ArrayList<>();
+    private long now = 0;
+    private Path directory;
+    private IgnoreListManager manager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ModConfig.useDetachedInstance();
+        directory = Files.createTempDirectory("wynnignore-test");
+        manager = new IgnoreListManager(directory);
+        manager.load();
+        WynnIgnoreMod.setIgnoreListManager(manager);
+        WynnIgnoreMod.getScheduler().setClock(() -> now);
+        CommandHandler.clearCommands();
+        CommandHandler.setClientBridge(new ClientBridge() {
+            @Override
+            public boolean isConnected() {
+                return true;
+            }
+
+            @Override
+            public void sendCommand(String command) {
+                sent.add(command);
+            }
+
+            @Override
+            public void showMessage(Text message, boolean overlay) {
+                shown.add(message.getString());
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        CommandHandler.clearCommands();
+        CommandHandler.setClientBridge(ClientBridge.MINECRAFT);
+        WynnIgnoreMod.getScheduler().setClock(System::nanoTime);
+        WynnIgnoreMod.setIgnoreListManager(null);
+        manager.shutdown();
+        IgnoreLists.delete(directory);
+    }
+
+    @Test
+    void confirmsOnlyTheNamedCommandWhenNamesSharePrefix() {
+        CommandHandler.queueWarIgnores(List.of("bob", "bobby"), "");
+        tickUntilSent(2);
+        assertEquals(2, CommandHandler.getInFlightCount());
+
+        assertTrue(CommandHandler.onChatMessage("bobby has been added to your ignore list"));
+        assertTrue(manager.isIgnored("bobby"));
+        assertFalse(manager.isIgnored("bob"));
+        assertEquals(1, CommandHandler.getInFlightCount());
+
+        assertTrue(CommandHandler.onChatMessage("bob has been added to your ignore list"));
+        assertTrue(manager.isIgnored("bob"));
+        assertEquals(0, CommandHandler.getInFlightCount());
+    }
+
+    @Test
+    void confirmsLongerNameSentFirst() {
+        CommandHandler.queueWarIgnores(List.of("bobby", "bob"), "");
+        tickUntilSent(2);
+
+        assertTrue(CommandHandler.onChatMessage("bob has been added to your ignore list"));
+        assertTrue(manager.isIgnored("bob"));
+        assertFalse(manager.isIgnored("bobby"));
+        assertEquals(1, CommandHandler.getInFlightCount());
+    }
+
+    @Test
+    void unignoreReplacesQueuedRetimeOfIgnoredPlayer() {
+        manager.addPlayer("bob");
+        CommandHandler.queueTimedIgnore("carl", 30);
+        tickUntilSent(1);
+        // Held back by the send delay, so still queued when the unignore arrives
+        CommandHandler.queueTimedIgnore("bob", 30);
+
+        assertEquals(1, CommandHandler.handleUnignore("bob"));
+        assertFalse(shown.stream().anyMatch(message -> message.contains("Cancelled")));
+        tickUntilSent(2);
+        assertEquals("ignore remove bob", sent.get(1));
+
+        assertTrue(CommandHandler.onChatMessage("bob has been removed from your ignore list"));
+        assertFalse(manager.isIgnored("bob"));
+    }
+
+    @Test
+    void unignoreCancelsQueuedIgnoreOfNewPlayer() {
+        CommandHandler.queueTimedIgnore("carl", 30);
+        tickUntilSent(1);
+        CommandHandler.queueTimedIgnore("bob", 30);
+
+        assertEquals(1, CommandHandler.handleUnignore("bob"));
+        assertTrue(shown.get(shown.size() - 1).contains("Cancelled"));
+        for (int i = 0; i < 100; i++) {
+            now += TICK_NANOS;
+            WynnIgnoreMod.getScheduler().tick();
+        }
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void permanentIgnoreReplacesQueuedExpiry() {
+        CommandHandler.queueTimedIgnore("carl", 30);
+        tickUntilSent(1);
+        manager.addTimedIgnore("bob", 0);
+        manager.checkTimedIgnoreExpiry();
+
+        CommandHandler.onDirectIgnore("bob");
+        assertTrue(manager.isIgnored("bob"));
+        assertFalse(manager.isTimedIgnore("bob"));
+
+        // Neither the dropped unignore nor a later expiry check may unignore bob
+        manager.onActivated();
+        manager.checkTimedIgnoreExpiry();
+        for (int i = 0; i < 100; i++) {
+            now += TICK_NANOS;
+            WynnIgnoreMod.getScheduler().tick();
+        }
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void cancelWithoutBulkUnignoreQueuesNothing() {
+        assertEquals(0, CommandHandler.handleUnignore("cancel"));
+        assertTrue(shown.get(shown.size() - 1).contains("is not in your tracked ignore list"));
+
+        for (int i = 0; i < 100; i++) {
+            now += TICK_NANOS;
+            WynnIgnoreMod.getScheduler().tick();
+        }
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void unignoresPlayerNamedCancelWithoutBulkUnignore() {
+        manager.addPlayer("cancel");
+        assertEquals(1, CommandHandler.handleUnignore("cancel"));
+        tickUntilSent(1);
+        assertEquals("ignore remove cancel", sent.get(0));
+    }
+
+    @Test
+    void requeuesExpiredTimedIgnoreWhenListIsActivatedAgain() {
+        manager.addTimedIgnore("bob", 0);
+        manager.checkTimedIgnoreExpiry();
+        tickUntilSent(1);
+
+        // Switched away before the server confirmed, then back
+        CommandHandler.clearCommands();
+        manager.onActivated();
+        manager.checkTimedIgnoreExpiry();
+        tickUntilSent(2);
+        assertEquals(sent.get(0), sent.get(1));
+    }
+
+    private void tickUntilSent(int commands) {
+        for (int i = 0; i < 1000 && sent.size() < commands; i++) {
+            now += TICK_NANOS;
+            WynnIgnoreMod.getScheduler().tick();
+        }
+        assertEquals(commands, sent.size());
+    }
+}
@@ -0,0 +1,56 @@
+package com.wynnignore;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfirmationMatcherTest {
+    @Test
+    void findsEachPhrase() {
+        assertEquals(ConfirmationMatcher.ADDED, ConfirmationMatcher.matchPhrases("Bob has been added to your ignore list!"));
+        assertEquals(ConfirmationMatcher.REMOVED, ConfirmationMatcher.matchPhrases("Bob has been removed from your ignore list!"));
+        assertEquals(ConfirmationMatcher.NOT_IGNORED, ConfirmationMatcher.matchPhrases("Bob is not being ignored."));
+        assertEquals(0, ConfirmationMatcher.matchPhrases("Bob joined the party"));
+    }
+
+    @Test
+    void skipsFormattingCodes() {
+        ConfirmationMatcher matcher = new ConfirmationMatcher("Bob");
+        String message = "§eB§6ob §7has been §cadded to your ignore list";
+        assertEquals(ConfirmationMatcher.ADDED, ConfirmationMatcher.matchPhrases(message));
+        assertTrue(matcher.mentionsPlayer(message));
+    }
+
+    @Test
+    void matchesNameAsWholeWord() {
+        ConfirmationMatcher matcher = new ConfirmationMatcher("bob");
+        assertTrue(matcher.mentionsPlayer("bob has been added to your ignore list"));
+        assertTrue(matcher.mentionsPlayer("BOB has been added to your ignore list"));
+        assertTrue(matcher.mentionsPlayer("[!] bob."));
+        assertTrue(matcher.mentionsPlayer("ignoring bob"));
+    }
+
+    @Test
+    void rejectsNameInsideLongerName() {
+        ConfirmationMatcher bob = new ConfirmationMatcher("bob");
+        assertFalse(bob.mentionsPlayer("bobby has been added to your ignore list"));
+        assertFalse(bob.mentionsPlayer("xbob has been added to your ignore list"));
+        assertFalse(bob.mentionsPlayer("big_bob has been added to your ignore list"));
+        assertFalse(bob.mentionsPlayer("bob2 has been added to your ignore list"));
+        // A rejected occurrence does not hide a later whole-word one
+        assertTrue(bob.mentionsPlayer("bobby and bob have been added to your ignore list"));
+
+        ConfirmationMatcher bobby = new ConfirmationMatcher("bobby");
+        assertTrue(bobby.mentionsPlayer("bobby has been added to your ignore list"));
+        assertFalse(bobby.mentionsPlayer("bob has been added to your ignore list"));
+    }
+
+    @Test
+    void formattingCodesDoNotSplitWords() {
+        ConfirmationMatcher bob = new ConfirmationMatcher("bob");
+        assertFalse(bob.mentionsPlayer("§ebob§6by has been added to your ignore list"));
+        assertTrue(bob.mentionsPlayer("§ebob§7 has been added to your ignore list"));
+    }
+}
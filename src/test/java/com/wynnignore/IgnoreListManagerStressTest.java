@@ -0,0 +1,167 @@
+package com.wynnignore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two writer threads change one list while two reader threads look players up, take snapshots and
+ * complete names. Each writer toggles its own pool in a fixed pattern, so the final contents are known
+ * exactly; a lost update or a ConcurrentModificationException fails the test.
+ */
+class IgnoreListManagerStressTest {
+    private static final int BASE = 2000;
+    private static final int POOL = 256;
+    private static final int ROUNDS = 50;
+
+    private Path directory;
+    private IgnoreListManager manager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ModConfig.useDetachedInstance();
+        directory = Files.createTempDirectory("wynnignore-stress");
+        manager = new IgnoreListManager(directory);
+        manager.load();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        manager.shutdown();
+        IgnoreLists.delete(directory);
+    }
+
+    @Test
+    void concurrentWritersAndReadersLoseNothing() throws InterruptedException {
+        // Lowercased like the names the manager stores
+        List<String> base = Corpus.playerNames(BASE, 7).stream().map(String::toLowerCase).toList();
+        for (String name : base) {
+            manager.addPlayer(name);
+        }
+        List<String> chatPool = prefixed("chat_", POOL);
+        List<String> tickPool = prefixed("tick_", POOL);
+
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        // Chat thread: permanent ignores and unignores; every round ends with the even names ignored
+        Thread chat = thread("chat", start, failures, () -> {
+            for (int round = 0; round < ROUNDS; round++) {
+                for (String name : chatPool) {
+                    manager.addPlayer(name);
+                }
+                for (int i = 1; i < POOL; i += 2) {
+                    manager.removePlayer(chatPool.get(i));
+                }
+            }
+        });
+        // Tick thread: timed ignores, removals and the expiry check; every round ends with the odd names timed
+        Thread tick = thread("tick", start, failures, () -> {
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int i = 0; i < POOL; i++) {
+                    manager.addTimedIgnore(tickPool.get(i), 60 + i);
+                }
+                for (int i = 0; i < POOL; i += 2) {
+                    manager.removePlayer(tickPool.get(i));
+                }
+                manager.checkTimedIgnoreExpiry();
+            }
+        });
+        threads.add(chat);
+        threads.add(tick);
+        for (int r = 0; r < 2; r++) {
+            threads.add(thread("render-" + r, start, failures, () -> {
+                String[] out = new String[10];
+                int i = 0;
+                while (writing.get()) {
+                    manager.isIgnored(base.get(i % BASE));
+                    manager.isIgnored(chatPool.get(i % POOL));
+                    manager.getRemainingMinutes(tickPool.get(i % POOL));
+                    IgnoreListSnapshot snapshot = manager.getSnapshot();
+                    for (String name : snapshot.getPlayers()) {
+                        name.length();
+                    }
+                    manager.getNameIndex().suggest(i % 2 == 0 ? "tick_" : "c", out);
+                    i++;
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        chat.join();
+        tick.join();
+        writing.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), "Thread failed: " + failures.peek());
+
+        Set<String> expected = new HashSet<>(base);
+        Set<String> expectedTimed = new HashSet<>();
+        for (int i = 0; i < POOL; i++) {
+            if (i % 2 == 0) {
+                expected.add(chatPool.get(i));
+            } else {
+                expected.add(tickPool.get(i));
+                expectedTimed.add(tickPool.get(i));
+            }
+        }
+        IgnoreListSnapshot snapshot = manager.getSnapshot();
+        assertEquals(expected, snapshot.getPlayers());
+        assertEquals(expectedTimed, snapshot.getTimedIgnores().keySet());
+        String[] out = new String[POOL];
+        assertEquals(POOL / 2, manager.getNameIndex().suggest("tick_", out));
+
+        // Everything written behind reaches the disk as well
+        manager.flush();
+        IgnoreListManager reloaded = new IgnoreListManager(directory);
+        reloaded.load();
+        try {
+            assertEquals(expected, reloaded.getSnapshot().getPlayers());
+            Map<String, Long> timed = reloaded.getSnapshot().getTimedIgnores();
+            assertEquals(expectedTimed, timed.keySet());
+        } finally {
+            reloaded.shutdown();
+        }
+    }
+
+    private static List<String> prefixed(String prefix, int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(prefix + i);
+        }
+        return names;
+    }
+
+    private static Thread thread(String name, CountDownLatch start, ConcurrentLinkedQueue<Throwable> failures, Runnable body) {
+        Thread thread = new Thread(() -> {
+            try {
+                start.await();
+                body.run();
+            } catch (Throwable t) {
+                failures.add(t);
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
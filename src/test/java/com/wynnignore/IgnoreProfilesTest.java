@@ -0,0 +1,61 @@
+package com.wynnignore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IgnoreProfilesTest {
+    private Path directory;
+    private IgnoreProfiles profiles;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ModConfig.useDetachedInstance();
+        directory = Files.createTempDirectory("wynnignore-profiles");
+        profiles = new IgnoreProfiles(directory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        profiles.shutdown();
+        IgnoreLists.delete(directory);
+    }
+
+    @Test
+    void mapsAddressesToProfiles() {
+        assertEquals(IgnoreProfiles.MAIN, IgnoreProfiles.keyFor(""));
+        assertEquals(IgnoreProfiles.MAIN, IgnoreProfiles.keyFor("play.wynncraft.com"));
+        assertEquals(IgnoreProfiles.BETA, IgnoreProfiles.keyFor("beta.wynncraft.com"));
+        assertEquals("server-example.org_25565", IgnoreProfiles.keyFor("Example.org:25565"));
+    }
+
+    @Test
+    void switchingToActiveProfileKeepsIt() {
+        IgnoreListManager main = profiles.switchTo(IgnoreProfiles.MAIN);
+        assertSame(main, profiles.switchTo(IgnoreProfiles.MAIN));
+    }
+
+    @Test
+    void reloadAfterEvictionSeesEvictedChanges() {
+        IgnoreListManager first = profiles.switchTo("server-a");
+        first.addPlayer("bob");
+        // Four more profiles push the first one out
+        for (String key : new String[] {"server-b", "server-c", "server-d", "server-e"}) {
+            profiles.switchTo(key);
+        }
+
+        // Reloaded straight away, while its final write may still be queued
+        IgnoreListManager reloaded = profiles.switchTo("server-a");
+        assertNotSame(first, reloaded);
+        assertTrue(reloaded.isIgnored("bob"));
+    }
+}
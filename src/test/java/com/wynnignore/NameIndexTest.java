@@ -0,0 +1,56 @@
+package com.wynnignore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NameIndexTest {
+    @Test
+    void ranksTimedThenRecentThenAlphabetical() {
+        NameIndex index = NameIndex.build(new IgnoreListSnapshot(1, List.of("carl", "bob", "anna"), Map.of()));
+        index.put("dave", 0);
+        index.put("bert", 0);
+        index.put("zed", 2000);
+        index.put("yan", 1000);
+
+        assertEquals(List.of("yan", "zed", "bert", "dave", "anna", "bob", "carl"), suggest(index, "", 10));
+        assertEquals(List.of("yan", "zed", "bert"), suggest(index, "", 3));
+        assertEquals(List.of("bert", "bob"), suggest(index, "b", 10));
+    }
+
+    @Test
+    void longPrefixFiltersItsBucket() {
+        NameIndex index = NameIndex.build(new IgnoreListSnapshot(1, List.of(), Map.of()));
+        index.put("bobby", 1000);
+        index.put("bobcat", 2000);
+        index.put("bob", 500);
+
+        assertEquals(List.of("bob", "bobby", "bobcat"), suggest(index, "bob", 10));
+        assertEquals(List.of("bobby"), suggest(index, "bobb", 10));
+        assertEquals(List.of(), suggest(index, "bobx", 10));
+    }
+
+    @Test
+    void removedAndRetimedNamesLeaveTheirOldRank() {
+        NameIndex index = NameIndex.build(new IgnoreListSnapshot(1, List.of(), Map.of()));
+        index.put("amy", 1000);
+        index.put("abe", 2000);
+        index.put("amy", 3000);
+        assertEquals(List.of("abe", "amy"), suggest(index, "a", 10));
+
+        index.remove("abe");
+        assertEquals(List.of("amy"), suggest(index, "a", 10));
+        index.remove("amy");
+        assertEquals(List.of(), suggest(index, "", 10));
+        assertEquals(0, index.size());
+    }
+
+    private static List<String> suggest(NameIndex index, String prefix, int limit) {
+        String[] out = new String[limit];
+        return Arrays.asList(out).subList(0, index.suggest(prefix, out));
+    }
+}
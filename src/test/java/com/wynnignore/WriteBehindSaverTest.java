@@ -0,0 +1,36 @@
+package com.wynnignore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WriteBehindSaverTest {
+    @Test
+    void collapsesChangesIntoOneWrite() {
+        AtomicInteger writes = new AtomicInteger();
+        WriteBehindSaver saver = new WriteBehindSaver("test-saver", 60_000, writes::incrementAndGet);
+        saver.markDirty();
+        saver.markDirty();
+        saver.flush();
+        assertEquals(1, writes.get());
+        saver.flush();
+        assertEquals(1, writes.get());
+        saver.shutdown();
+    }
+
+    @Test
+    void changeAfterShutdownIsDropped() {
+        AtomicInteger writes = new AtomicInteger();
+        WriteBehindSaver saver = new WriteBehindSaver("test-saver", 0, writes::incrementAndGet);
+        saver.markDirty();
+        saver.shutdown();
+        assertEquals(1, writes.get());
+
+        saver.markDirty();
+        saver.markDirty();
+        saver.flush();
+        assertEquals(1, writes.get());
+    }
+}
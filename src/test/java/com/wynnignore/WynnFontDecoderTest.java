@@ -0,0 +1,88 @@
+package com.wynnignore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the decoder and the DISGUISED tag against the selectors captured in {@link LegacyText}.
+ */
+class WynnFontDecoderTest {
+    @Test
+    void disguisedTagIsTheCapturedSequence() {
+        assertEquals(10, CommandHandler.DISGUISED_GLYPHS.length);
+        assertTrue(Arrays.equals(LegacyText.DISGUISED_GLYPHS, CommandHandler.DISGUISED_GLYPHS));
+    }
+
+    @Test
+    void decodesCapturedSelectorsToDisguised() {
+        assertEquals(0, WynnFontDecoder.decodeGlyph(LegacyText.DISGUISED_GLYPHS[0]));
+        StringBuilder letters = new StringBuilder();
+        for (int i = 1; i < LegacyText.DISGUISED_GLYPHS.length; i++) {
+            letters.append(WynnFontDecoder.decodeGlyph(LegacyText.DISGUISED_GLYPHS[i]));
+        }
+        assertEquals("DISGUISED", letters.toString());
+    }
+
+    @Test
+    void encodesLettersToCapturedSelectors() {
+        char[] letters = Arrays.copyOfRange(LegacyText.DISGUISED_GLYPHS, 1, LegacyText.DISGUISED_GLYPHS.length);
+        assertTrue(Arrays.equals(letters, WynnFontDecoder.encodeSelectors("DISGUISED")));
+    }
+
+    @Test
+    void decodesCustomFontText() {
+        String text = "[Champion] Notch " + tag(LegacyText.DISGUISED_GLYPHS);
+        assertEquals("[Champion] Notch DISGUISED", WynnFontDecoder.decode(text));
+        // Stray Private Use Area characters and a truncated glyph are dropped
+        String glyph = Corpus.glyph(LegacyText.DISGUISED_GLYPHS[1]);
+        assertEquals("aDb", WynnFontDecoder.decode("a\uE100" + glyph + "b" + glyph.substring(0, 1)));
+    }
+
+    @Test
+    void decodeReturnsPlainTextAsIs() {
+        String text = "Notch has been added to your ignore list";
+        assertSame(text, WynnFontDecoder.decode(text));
+        assertNull(WynnFontDecoder.decode(null));
+    }
+
+    @Test
+    void recognizesOnlyFullGlyphs() {
+        String glyph = Corpus.glyph(LegacyText.DISGUISED_GLYPHS[1]);
+        assertTrue(WynnFontDecoder.isGlyph("x" + glyph + "x", 1));
+        assertTrue(WynnFontDecoder.isGlyph("x" + glyph, 1));
+        assertFalse(WynnFontDecoder.isGlyph("x" + glyph.substring(0, 2), 1));
+        assertFalse(WynnFontDecoder.isGlyph(glyph.substring(0, 2) + "xx", 0));
+        assertFalse(WynnFontDecoder.isGlyph("abc", 0));
+        assertEquals(0, WynnFontDecoder.decodeGlyph('a'));
+    }
+
+    @Test
+    void extractsDisguisedNameLikeLegacy() {
+        assertEquals("Notch", CommandHandler.extractDisguisedPlayerName("Notch " + tag(LegacyText.DISGUISED_GLYPHS)));
+        for (String nametag : Corpus.nametags(10_000, 5, 4)) {
+            assertEquals(LegacyText.extractDisguisedPlayerName(nametag), CommandHandler.extractDisguisedPlayerName(nametag), nametag);
+        }
+    }
+
+    @Test
+    void ignoresTagWithoutOpeningCap() {
+        String letters = tag(Arrays.copyOfRange(LegacyText.DISGUISED_GLYPHS, 1, LegacyText.DISGUISED_GLYPHS.length));
+        assertNull(LegacyText.extractDisguisedPlayerName("Notch " + letters));
+        assertNull(CommandHandler.extractDisguisedPlayerName("Notch " + letters));
+    }
+
+    private static String tag(char[] selectors) {
+        StringBuilder text = new StringBuilder();
+        for (char selector : selectors) {
+            text.append(Corpus.glyph(selector));
+        }
+        return text.toString();
+    }
+}